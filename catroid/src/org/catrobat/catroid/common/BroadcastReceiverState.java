@@ -0,0 +1,78 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.common;
+
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.Look;
+import org.catrobat.catroid.content.actions.BroadcastNotifyAction;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+import org.catrobat.catroid.stage.StageRuntime;
+
+/**
+ * The sequence of a broadcast script together with the look running it. The sequence always runs inside one
+ * receiver sequence, which notifies the waiting broadcast event, if any, once the script has finished. The receiver
+ * sequence is the only action on the look holding the script sequence, so broadcasts and broadcast waits both
+ * restart the same action.
+ */
+public class BroadcastReceiverState {
+	private final SequenceAction sequence;
+	private final Look look;
+	private final BroadcastNotifyAction notifyAction;
+	private final SequenceAction receiverSequence;
+
+	public BroadcastReceiverState(SequenceAction sequence, Look look, StageRuntime stageRuntime) {
+		this.sequence = sequence;
+		this.look = look;
+		notifyAction = ExtendedActions.broadcastNotify(stageRuntime, null);
+		receiverSequence = ExtendedActions.sequence(sequence, notifyAction);
+	}
+
+	public SequenceAction getSequence() {
+		return sequence;
+	}
+
+	public Look getLook() {
+		return look;
+	}
+
+	/**
+	 * Returns the action which is added to the look, it runs the sequence and then notifies the wait event.
+	 */
+	public SequenceAction getReceiverSequence() {
+		return receiverSequence;
+	}
+
+	/**
+	 * Sets the broadcast wait event which is notified when the sequence has finished, or null if no event is
+	 * waiting for this receiver.
+	 */
+	public void setWaitEvent(BroadcastEvent event) {
+		notifyAction.setEvent(event);
+	}
+
+	public boolean isStarted() {
+		return receiverSequence.getActor() != null;
+	}
+}
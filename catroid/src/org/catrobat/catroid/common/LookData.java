@@ -32,6 +32,8 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.stage.LookHitMask;
+import org.catrobat.catroid.stage.LookTextureCache;
 import org.catrobat.catroid.utils.ImageEditing;
 import org.catrobat.catroid.utils.Utils;
 
@@ -52,6 +54,8 @@ public class LookData implements Serializable, Cloneable {
 	private transient Pixmap pixmap = null;
 	private transient Pixmap originalPixmap = null;
 	private transient TextureRegion region = null;
+	private transient TextureRegion atlasRegion = null;
+	private transient LookHitMask hitMask = null;
 
 	@Override
 	public LookData clone() {
@@ -73,24 +77,70 @@ public class LookData implements Serializable, Cloneable {
 		pixmap = null;
 		originalPixmap = null;
 		region = null;
+		hitMask = null;
 	}
 
+	/**
+	 * Looks in a texture atlas use their atlas region, looks with a pixmap set by {@link #setPixmap(Pixmap)} get
+	 * their own texture and all other looks share the textures of the {@link LookTextureCache}, which may dispose
+	 * them while no look shows the image. The returned region must therefore only be kept while it is shown.
+	 */
 	public TextureRegion getTextureRegion() {
-		if (region == null) {
-			region = new TextureRegion(new Texture(getPixmap()));
+		if (atlasRegion != null) {
+			return atlasRegion;
 		}
-		return region;
+		if (region == null && pixmap != null) {
+			region = new TextureRegion(new Texture(pixmap));
+		}
+		if (region != null) {
+			return region;
+		}
+		return LookTextureCache.getInstance().getTextureRegion(getAbsolutePath());
+	}
+
+	/**
+	 * Lets this look use a region of a shared texture atlas instead of creating its own texture. The atlas region
+	 * survives {@link #resetLookData()}.
+	 */
+	public void setAtlasRegion(TextureRegion atlasRegion) {
+		this.atlasRegion = atlasRegion;
+	}
+
+	public boolean isInTextureAtlas() {
+		return atlasRegion != null;
 	}
 
 	public void setTextureRegion() {
 		this.region = new TextureRegion(new Texture(getPixmap()));
 	}
 
+	/**
+	 * Estimates the memory used by the texture of this look with four bytes per pixel. Looks in a texture atlas
+	 * count with the size of their region, looks whose texture is kept by the {@link LookTextureCache} count as 0.
+	 */
+	public long getTextureMemoryEstimate() {
+		TextureRegion ownRegion = atlasRegion != null ? atlasRegion : region;
+		if (ownRegion == null) {
+			return 0;
+		}
+		return 4L * ownRegion.getRegionWidth() * ownRegion.getRegionHeight();
+	}
+
 	public Pixmap getPixmap() {
+		if (pixmap != null) {
+			return pixmap;
+		}
+		return LookTextureCache.getInstance().getPixmap(getAbsolutePath());
+	}
+
+	public LookHitMask getHitMask() {
 		if (pixmap == null) {
-			pixmap = new Pixmap(Gdx.files.absolute(getAbsolutePath()));
+			return LookTextureCache.getInstance().getHitMask(getAbsolutePath());
+		}
+		if (hitMask == null) {
+			hitMask = LookHitMask.create(pixmap);
 		}
-		return pixmap;
+		return hitMask;
 	}
 
 	public void setPixmap(Pixmap pixmap) {
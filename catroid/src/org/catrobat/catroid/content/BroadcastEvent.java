@@ -24,8 +24,6 @@ package org.catrobat.catroid.content;
 
 import com.badlogic.gdx.scenes.scene2d.Event;
 
-import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
-
 public class BroadcastEvent extends Event {
 
 	private BroadcastType type;
@@ -94,8 +92,6 @@ public class BroadcastEvent extends Event {
 	public void resetEventAndResumeScript() {
 		resetNumberOfReceivers();
 		resetNumberOfFinishedReceivers();
-		BroadcastWaitSequenceMap.remove(getBroadcastMessage());
-		BroadcastWaitSequenceMap.clearCurrentBroadcastEvent();
 		setRun(true);
 	}
 
@@ -22,14 +22,9 @@
  */
 package org.catrobat.catroid.content;
 
-import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.scenes.scene2d.Action;
-import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.badlogic.gdx.scenes.scene2d.InputEvent;
-import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.actions.ParallelAction;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
@@ -37,24 +32,31 @@ import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
 
 import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.stage.BrightnessShader;
+import org.catrobat.catroid.stage.LookHitMask;
+import org.catrobat.catroid.stage.LookSpatialIndex;
+import org.catrobat.catroid.stage.StageProfiler;
+import org.catrobat.catroid.stage.StageRuntime;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 public class Look extends Image {
 	private static final float DEGREE_UI_OFFSET = 90.0f;
-	private static ArrayList<Action> actionsToRestart = new ArrayList<Action>();
 	public boolean visible = true;
 	protected boolean imageChanged = false;
-	protected boolean brightnessChanged = false;
 	protected LookData lookData;
 	protected Sprite sprite;
 	protected float alpha = 1f;
 	protected float brightness = 1f;
-	protected Pixmap pixmap;
+	protected LookHitMask hitMask;
+	private String shownImagePath;
+	private LookSpatialIndex spatialIndex;
+	private StageRuntime stageRuntime;
 	private ParallelAction whenParallelAction;
+	private final Set<Action> releasableActions = Collections.newSetFromMap(new IdentityHashMap<Action, Boolean>());
 	private boolean allActionAreFinished = false;
-	private BrightnessContrastShader shader;
 
 	public Look(Sprite sprite) {
 		this.sprite = sprite;
@@ -63,41 +65,6 @@ public class Look extends Image {
 		setScale(1f, 1f);
 		setRotation(0f);
 		setTouchable(Touchable.enabled);
-		this.addListener(new InputListener() {
-			@Override
-			public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
-				if (doTouchDown(x, y, pointer)) {
-					return true;
-				}
-				setTouchable(Touchable.disabled);
-				Actor target = getParent().hit(event.getStageX(), event.getStageY(), true);
-				if (target != null) {
-					target.fire(event);
-				}
-				setTouchable(Touchable.enabled);
-				return false;
-			}
-		});
-
-		this.addListener(new BroadcastListener() {
-			@Override
-			public void handleBroadcastEvent(BroadcastEvent event, String broadcastMessage) {
-				doHandleBroadcastEvent(broadcastMessage);
-			}
-
-			@Override
-			public void handleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage) {
-				doHandleBroadcastFromWaiterEvent(event, broadcastMessage);
-			}
-		});
-	}
-
-	public static boolean actionsToRestartContains(Action action) {
-		return Look.actionsToRestart.contains(action);
-	}
-
-	public static void actionsToRestartAdd(Action action) {
-		Look.actionsToRestart.add(action);
 	}
 
 	public Look copyLookForSprite(final Sprite cloneSprite) {
@@ -108,10 +75,15 @@ public class Look extends Image {
 		cloneLook.visible = this.visible;
 		cloneLook.whenParallelAction = null;
 		cloneLook.allActionAreFinished = this.allActionAreFinished;
+		cloneLook.stageRuntime = this.stageRuntime;
 
 		return cloneLook;
 	}
 
+	/**
+	 * Touches are dispatched by the {@link org.catrobat.catroid.stage.LookTouchProcessor} of the stage, which asks
+	 * the looks under the touch from top to bottom until one of them returns true.
+	 */
 	public boolean doTouchDown(float x, float y, int pointer) {
 		if (sprite.isPaused) {
 			return true;
@@ -124,7 +96,7 @@ public class Look extends Image {
 		y = (getHeight() - 1) - y;
 
 		if (x >= 0 && x < getWidth() && y >= 0 && y < getHeight()
-				&& ((pixmap != null && ((pixmap.getPixel((int) x, (int) y) & 0x000000FF) > 10)))) {
+				&& hitMask != null && hitMask.isOpaque((int) x, (int) y)) {
 			if (whenParallelAction == null) {
 				sprite.createWhenScriptActionSequence("Tapped");
 			} else {
@@ -136,21 +108,17 @@ public class Look extends Image {
 		return false;
 	}
 
-	public void createBrightnessContrastShader() {
-		shader = new BrightnessContrastShader();
-		shader.setBrightness(brightness);
-	}
-
 	@Override
 	public void draw(SpriteBatch batch, float parentAlpha) {
 		checkImageChanged();
-		batch.setShader(shader);
 		if (alpha == 0.0f) {
 			setVisible(false);
 		} else {
 			setVisible(true);
 		}
 		if (this.visible && this.getDrawable() != null) {
+			float encodedBrightness = BrightnessShader.encodeBrightness(brightness);
+			setColor(encodedBrightness, encodedBrightness, encodedBrightness, 1f);
 			super.draw(batch, this.alpha);
 		}
 	}
@@ -161,16 +129,27 @@ public class Look extends Image {
 		allActionAreFinished = false;
 		int finishedCount = 0;
 
-		for (Iterator<Action> iterator = Look.actionsToRestart.iterator(); iterator.hasNext(); ) {
-			Action actionToRestart = iterator.next();
-			actionToRestart.restart();
-			iterator.remove();
-		}
+		getStageRuntime().restartActions();
 
+		boolean profiling = StageProfiler.isEnabled();
 		for (int i = 0, n = actions.size; i < n; i++) {
 			Action action = actions.get(i);
-			if (action.act(delta)) {
-				finishedCount++;
+			if (profiling) {
+				StageProfiler.getInstance().beginAction(sprite);
+			}
+			boolean finished = action.act(delta);
+			if (profiling) {
+				StageProfiler.getInstance().endAction();
+			}
+			if (finished) {
+				if (releasableActions.remove(action)) {
+					actions.removeIndex(i);
+					action.setActor(null);
+					i--;
+					n--;
+				} else {
+					finishedCount++;
+				}
 			}
 		}
 		if (finishedCount == actions.size) {
@@ -184,29 +163,36 @@ public class Look extends Image {
 		allActionAreFinished = false;
 	}
 
+	/**
+	 * Adds an action which is removed and returned to its pool as soon as it has finished, like the sequence of a
+	 * start script, which is never restarted.
+	 */
+	public void addReleasableAction(Action action) {
+		addAction(action);
+		releasableActions.add(action);
+	}
+
+	@Override
+	public void clearActions() {
+		super.clearActions();
+		releasableActions.clear();
+	}
+
 	protected void checkImageChanged() {
 		if (imageChanged) {
 			if (lookData == null) {
 				setBounds(getX() + getWidth() / 2f, getY() + getHeight() / 2f, 0f, 0f);
 				setDrawable(null);
+				shownImagePath = null;
 				imageChanged = false;
 				return;
 			}
 
-			pixmap = lookData.getPixmap();
-			float newX = getX() - (pixmap.getWidth() - getWidth()) / 2f;
-			float newY = getY() - (pixmap.getHeight() - getHeight()) / 2f;
-
-			setPosition(newX, newY);
-			setSize(pixmap.getWidth(), pixmap.getHeight());
-			setOrigin(getWidth() / 2f, getHeight() / 2f);
-
-			if (brightnessChanged) {
-				shader.setBrightness(brightness);
-				brightnessChanged = false;
-			}
-
+			shownImagePath = lookData.getAbsolutePath();
 			TextureRegion region = lookData.getTextureRegion();
+			hitMask = lookData.getHitMask();
+			setSizeKeepingCenter(region.getRegionWidth(), region.getRegionHeight());
+
 			TextureRegionDrawable drawable = new TextureRegionDrawable(region);
 			setDrawable(drawable);
 
@@ -214,6 +200,182 @@ public class Look extends Image {
 		}
 	}
 
+	/**
+	 * Applies a changed look like {@link #draw(SpriteBatch, float)} does, but only reads the image size, so
+	 * neither a pixmap nor a texture is created.
+	 */
+	public void checkImageChangedWithoutTextures() {
+		if (imageChanged) {
+			if (lookData == null) {
+				setBounds(getX() + getWidth() / 2f, getY() + getHeight() / 2f, 0f, 0f);
+			} else {
+				int[] measure = lookData.getMeasure();
+				setSizeKeepingCenter(Math.max(0, measure[0]), Math.max(0, measure[1]));
+			}
+			imageChanged = false;
+		}
+	}
+
+	private void setSizeKeepingCenter(float width, float height) {
+		float newX = getX() - (width - getWidth()) / 2f;
+		float newY = getY() - (height - getHeight()) / 2f;
+
+		setPosition(newX, newY);
+		setSize(width, height);
+		setOrigin(getWidth() / 2f, getHeight() / 2f);
+	}
+
+	public void setSpatialIndex(LookSpatialIndex spatialIndex) {
+		this.spatialIndex = spatialIndex;
+	}
+
+	/**
+	 * Returns the runtime of the stage this look is on. A look which was never put on a stage, e.g. in tests acting
+	 * looks directly, creates a runtime of its own.
+	 */
+	public StageRuntime getStageRuntime() {
+		if (stageRuntime == null) {
+			stageRuntime = new StageRuntime();
+		}
+		return stageRuntime;
+	}
+
+	public void setStageRuntime(StageRuntime stageRuntime) {
+		this.stageRuntime = stageRuntime;
+	}
+
+	private void boundsChanged() {
+		if (spatialIndex != null) {
+			spatialIndex.markDirty(this);
+		}
+	}
+
+	@Override
+	public void setX(float x) {
+		super.setX(x);
+		boundsChanged();
+	}
+
+	@Override
+	public void setY(float y) {
+		super.setY(y);
+		boundsChanged();
+	}
+
+	@Override
+	public void setPosition(float x, float y) {
+		super.setPosition(x, y);
+		boundsChanged();
+	}
+
+	@Override
+	public void translate(float x, float y) {
+		super.translate(x, y);
+		boundsChanged();
+	}
+
+	@Override
+	public void setWidth(float width) {
+		super.setWidth(width);
+		boundsChanged();
+	}
+
+	@Override
+	public void setHeight(float height) {
+		super.setHeight(height);
+		boundsChanged();
+	}
+
+	@Override
+	public void setSize(float width, float height) {
+		super.setSize(width, height);
+		boundsChanged();
+	}
+
+	@Override
+	public void size(float size) {
+		super.size(size);
+		boundsChanged();
+	}
+
+	@Override
+	public void size(float width, float height) {
+		super.size(width, height);
+		boundsChanged();
+	}
+
+	@Override
+	public void setBounds(float x, float y, float width, float height) {
+		super.setBounds(x, y, width, height);
+		boundsChanged();
+	}
+
+	@Override
+	public void setOrigin(float originX, float originY) {
+		super.setOrigin(originX, originY);
+		boundsChanged();
+	}
+
+	@Override
+	public void setOriginX(float originX) {
+		super.setOriginX(originX);
+		boundsChanged();
+	}
+
+	@Override
+	public void setOriginY(float originY) {
+		super.setOriginY(originY);
+		boundsChanged();
+	}
+
+	@Override
+	public void setScale(float scale) {
+		super.setScale(scale);
+		boundsChanged();
+	}
+
+	@Override
+	public void setScale(float scaleX, float scaleY) {
+		super.setScale(scaleX, scaleY);
+		boundsChanged();
+	}
+
+	@Override
+	public void setScaleX(float scaleX) {
+		super.setScaleX(scaleX);
+		boundsChanged();
+	}
+
+	@Override
+	public void setScaleY(float scaleY) {
+		super.setScaleY(scaleY);
+		boundsChanged();
+	}
+
+	@Override
+	public void scale(float scale) {
+		super.scale(scale);
+		boundsChanged();
+	}
+
+	@Override
+	public void scale(float scaleX, float scaleY) {
+		super.scale(scaleX, scaleY);
+		boundsChanged();
+	}
+
+	@Override
+	public void setRotation(float degrees) {
+		super.setRotation(degrees);
+		boundsChanged();
+	}
+
+	@Override
+	public void rotate(float amountInDegrees) {
+		super.rotate(amountInDegrees);
+		boundsChanged();
+	}
+
 	public void refreshTextures() {
 		this.imageChanged = true;
 	}
@@ -231,6 +393,13 @@ public class Look extends Image {
 		return allActionAreFinished;
 	}
 
+	/**
+	 * @return whether this look currently shows the image with the given path, or is about to show it
+	 */
+	public boolean usesImage(String path) {
+		return path.equals(shownImagePath) || (lookData != null && path.equals(lookData.getAbsolutePath()));
+	}
+
 	public String getImagePath() {
 		String path;
 		if (this.lookData == null) {
@@ -351,57 +520,9 @@ public class Look extends Image {
 		}
 
 		brightness = percent / 100f;
-		brightnessChanged = true;
-		imageChanged = true;
 	}
 
 	public void changeBrightnessInUserInterfaceDimensionUnit(float changePercent) {
 		setBrightnessInUserInterfaceDimensionUnit(getBrightnessInUserInterfaceDimensionUnit() + changePercent);
 	}
-
-	private void doHandleBroadcastEvent(String broadcastMessage) {
-		BroadcastHandler.doHandleBroadcastEvent(this, broadcastMessage);
-	}
-
-	private void doHandleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage) {
-		BroadcastHandler.doHandleBroadcastFromWaiterEvent(this, event, broadcastMessage);
-	}
-
-	private class BrightnessContrastShader extends ShaderProgram {
-
-		private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
-				+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" + "attribute vec2 "
-				+ ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" + "uniform mat4 u_projTrans;\n" + "varying vec4 v_color;\n"
-				+ "varying vec2 v_texCoords;\n" + "\n" + "void main()\n" + "{\n" + " v_color = "
-				+ ShaderProgram.COLOR_ATTRIBUTE + ";\n" + " v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
-				+ " gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" + "}\n";
-		private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n" + "#define LOWP lowp\n"
-				+ "precision mediump float;\n" + "#else\n" + "#define LOWP \n" + "#endif\n"
-				+ "varying LOWP vec4 v_color;\n" + "varying vec2 v_texCoords;\n" + "uniform sampler2D u_texture;\n"
-				+ "uniform float brightness;\n" + "uniform float contrast;\n" + "void main()\n" + "{\n"
-				+ " vec4 color = v_color * texture2D(u_texture, v_texCoords);\n" + " color.rgb /= color.a;\n"
-				+ " color.rgb = ((color.rgb - 0.5) * max(contrast, 0.0)) + 0.5;\n" //apply contrast
-				+ " color.rgb += brightness;\n" //apply brightness
-				+ " color.rgb *= color.a;\n" + " gl_FragColor = color;\n" + "}";
-
-		private static final String BRIGHTNESS_STRING_IN_SHADER = "brightness";
-		private static final String CONTRAST_STRING_IN_SHADER = "contrast";
-
-		public BrightnessContrastShader() {
-			super(VERTEX_SHADER, FRAGMENT_SHADER);
-			ShaderProgram.pedantic = false;
-			if (isCompiled()) {
-				begin();
-				setUniformf(BRIGHTNESS_STRING_IN_SHADER, 0.0f);
-				setUniformf(CONTRAST_STRING_IN_SHADER, 1.0f);
-				end();
-			}
-		}
-
-		public void setBrightness(float brightness) {
-			begin();
-			setUniformf(BRIGHTNESS_STRING_IN_SHADER, brightness - 1f);
-			end();
-		}
-	}
 }
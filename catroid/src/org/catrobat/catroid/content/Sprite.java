@@ -28,7 +28,6 @@ import com.badlogic.gdx.scenes.scene2d.actions.ParallelAction;
 import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
 
 import org.catrobat.catroid.ProjectManager;
-import org.catrobat.catroid.common.BroadcastSequenceMap;
 import org.catrobat.catroid.common.FileChecksumContainer;
 import org.catrobat.catroid.common.LookData;
 import org.catrobat.catroid.common.SoundInfo;
@@ -36,6 +35,7 @@ import org.catrobat.catroid.content.actions.ExtendedActions;
 import org.catrobat.catroid.content.bricks.Brick;
 import org.catrobat.catroid.formulaeditor.UserVariable;
 import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+import org.catrobat.catroid.stage.StageRuntime;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -105,29 +105,19 @@ public class Sprite implements Serializable, Cloneable {
 	}
 
 	public void createStartScriptActionSequence() {
+		StageRuntime stageRuntime = look.getStageRuntime();
 		for (Script s : scriptList) {
 			if (s instanceof StartScript) {
-				look.addAction(createActionSequence(s));
+				look.addReleasableAction(createActionSequence(s));
 			}
 			if (s instanceof BroadcastScript) {
 				BroadcastScript script = (BroadcastScript) s;
 				SequenceAction action = createBroadcastScriptActionSequence(script);
-				putBroadcastSequenceAction(script.getBroadcastMessage(), action);
-
+				stageRuntime.addBroadcastReceiver(script.getBroadcastMessage(), action, look);
 			}
 		}
 	}
 
-	private void putBroadcastSequenceAction(String broadcastMessage, SequenceAction action) {
-		if (BroadcastSequenceMap.containsKey(broadcastMessage)) {
-			BroadcastSequenceMap.get(broadcastMessage).add(action);
-		} else {
-			ArrayList<SequenceAction> actionList = new ArrayList<SequenceAction>();
-			actionList.add(action);
-			BroadcastSequenceMap.put(broadcastMessage, actionList);
-		}
-	}
-
 	@Override
 	public Sprite clone() {
 		final Sprite cloneSprite = new Sprite();
@@ -139,9 +129,9 @@ public class Sprite implements Serializable, Cloneable {
 		}
 		UserVariablesContainer userVariables = currentProject.getUserVariables();
 		List<UserVariable> originalSpriteVariables = userVariables.getOrCreateVariableListForSprite(this);
-		List<UserVariable> clonedSpriteVariables = userVariables.getOrCreateVariableListForSprite(cloneSprite);
+		userVariables.getOrCreateVariableListForSprite(cloneSprite);
 		for (UserVariable variable : originalSpriteVariables) {
-			clonedSpriteVariables.add(new UserVariable(variable.getName(), variable.getValue()));
+			userVariables.addSpriteUserVariableToSprite(cloneSprite, variable.getName()).setValue(variable.getValue());
 		}
 
 		ArrayList<LookData> cloneLookList = new ArrayList<LookData>();
@@ -183,7 +173,6 @@ public class Sprite implements Serializable, Cloneable {
 			if (s instanceof WhenScript && (((WhenScript) s).getAction().equalsIgnoreCase(action))) {
 				SequenceAction sequence = createActionSequence(s);
 				whenParallelAction.addAction(sequence);
-
 			}
 		}
 		look.setWhenParallelAction(whenParallelAction);
@@ -195,15 +184,13 @@ public class Sprite implements Serializable, Cloneable {
 	}
 
 	private SequenceAction createActionSequence(Script s) {
-		SequenceAction sequence = ExtendedActions.sequence();
+		SequenceAction sequence = ExtendedActions.scriptSequence(s);
 		s.run(sequence);
 		return sequence;
 	}
 
 	public void startScriptBroadcast(Script s, boolean overload) {
-		SequenceAction sequence = ExtendedActions.sequence();
-		s.run(sequence);
-		look.addAction(sequence);
+		look.addAction(createActionSequence(s));
 	}
 
 	public void pause() {
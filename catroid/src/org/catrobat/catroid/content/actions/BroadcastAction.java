@@ -24,12 +24,8 @@ package org.catrobat.catroid.content.actions;
 
 import com.badlogic.gdx.scenes.scene2d.Action;
 
-import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.content.BroadcastEvent;
 import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
-import org.catrobat.catroid.content.Sprite;
-
-import java.util.List;
 
 public class BroadcastAction extends Action {
 
@@ -39,10 +35,7 @@ public class BroadcastAction extends Action {
 	@Override
 	public boolean act(float delta) {
 		if (executeOnce) {
-			List<Sprite> sprites = ProjectManager.getInstance().getCurrentProject().getSpriteList();
-			for (Sprite spriteOfList : sprites) {
-				spriteOfList.look.fire(event);
-			}
+			event.getSenderSprite().look.getStageRuntime().dispatchBroadcast(event);
 			executeOnce = false;
 		}
 		if (event.getRun() || event.getNumberOfReceivers() == 0) {
@@ -59,6 +52,13 @@ public class BroadcastAction extends Action {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		event = null;
+		executeOnce = true;
+	}
+
 	public void setBroadcastEvent(BroadcastEvent event) {
 		this.event = event;
 	}
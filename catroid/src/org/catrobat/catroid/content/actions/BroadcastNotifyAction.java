@@ -25,20 +25,36 @@ package org.catrobat.catroid.content.actions;
 import com.badlogic.gdx.scenes.scene2d.Action;
 
 import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.stage.StageRuntime;
 
 public class BroadcastNotifyAction extends Action {
 
+	private StageRuntime stageRuntime;
 	private BroadcastEvent event;
 
 	@Override
 	public boolean act(float delta) {
+		if (event == null) {
+			return true;
+		}
 		event.raiseNumberOfFinishedReceivers();
 		if (event.checkIfAllReceiversHaveFinished()) {
-			event.resetEventAndResumeScript();
+			stageRuntime.finishBroadcastWait(event);
 		}
 		return true;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		stageRuntime = null;
+		event = null;
+	}
+
+	public void setStageRuntime(StageRuntime stageRuntime) {
+		this.stageRuntime = stageRuntime;
+	}
+
 	public void setEvent(BroadcastEvent event) {
 		this.event = event;
 	}
@@ -37,6 +37,13 @@ public class ChangeBrightnessByNAction extends TemporalAction {
 		sprite.look.changeBrightnessInUserInterfaceDimensionUnit(changeBrightness.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		changeBrightness = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -37,6 +37,13 @@ public class ChangeGhostEffectByNAction extends TemporalAction {
 		sprite.look.changeTransparencyInUserInterfaceDimensionUnit(changeGhostEffect.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		changeGhostEffect = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -37,6 +37,13 @@ public class ChangeSizeByNAction extends TemporalAction {
 		sprite.look.changeSizeInUserInterfaceDimensionUnit(size.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		size = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -45,6 +45,14 @@ public class ChangeVariableAction extends Action {
 		return true;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		changeVariable = null;
+		userVariable = null;
+	}
+
 	public void setUserVariable(UserVariable userVariable) {
 		this.userVariable = userVariable;
 	}
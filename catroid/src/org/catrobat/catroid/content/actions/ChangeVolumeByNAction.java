@@ -39,6 +39,13 @@ public class ChangeVolumeByNAction extends TemporalAction {
 		SoundManager.getInstance().setVolume(newVolume);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		volume = null;
+		sprite = null;
+	}
+
 	public void setVolume(Formula volume) {
 		this.volume = volume;
 	}
@@ -37,6 +37,13 @@ public class ChangeXByNAction extends TemporalAction {
 		sprite.look.changeXInUserInterfaceDimensionUnit(xMovement.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		xMovement = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
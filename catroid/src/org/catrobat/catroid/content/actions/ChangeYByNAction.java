@@ -37,6 +37,13 @@ public class ChangeYByNAction extends TemporalAction {
 		sprite.look.changeYInUserInterfaceDimensionUnit(yMovement.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		yMovement = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -36,6 +36,12 @@ public class ClearGraphicEffectAction extends TemporalAction {
 		sprite.look.setTransparencyInUserInterfaceDimensionUnit(0.0f);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -35,6 +35,12 @@ public class ComeToFrontAction extends TemporalAction {
 		sprite.look.toFront();
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -51,4 +51,9 @@ public class DroneFlipAction extends TemporalAction {
 		return superReturn;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		service = null;
+	}
 }
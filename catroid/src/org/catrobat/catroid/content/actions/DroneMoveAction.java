@@ -42,6 +42,14 @@ public abstract class DroneMoveAction extends TemporalAction {
 		super.setDuration(duration.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		duration = null;
+		powerInPercent = null;
+	}
+
 	public void setDelay(Formula delay) {
 		this.duration = delay;
 	}
@@ -51,4 +51,9 @@ public class DroneTurnLeftWithMagnetometerAction extends DroneMoveAction {
 		isCalled = true;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		isCalled = false;
+	}
 }
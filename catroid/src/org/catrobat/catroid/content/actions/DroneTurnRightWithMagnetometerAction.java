@@ -58,4 +58,9 @@ public class DroneTurnRightWithMagnetometerAction extends DroneMoveAction {
 		isCalled = true;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		isCalled = false;
+	}
 }
@@ -31,10 +31,12 @@ import org.catrobat.catroid.common.LookData;
 import org.catrobat.catroid.common.SoundInfo;
 import org.catrobat.catroid.content.BroadcastEvent;
 import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.Script;
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.content.bricks.SpeakBrick;
 import org.catrobat.catroid.formulaeditor.Formula;
 import org.catrobat.catroid.formulaeditor.UserVariable;
+import org.catrobat.catroid.stage.StageRuntime;
 
 public class ExtendedActions extends Actions {
 
@@ -59,8 +61,9 @@ public class ExtendedActions extends Actions {
 		return action;
 	}
 
-	public static BroadcastNotifyAction broadcastNotify(BroadcastEvent event) {
+	public static BroadcastNotifyAction broadcastNotify(StageRuntime stageRuntime, BroadcastEvent event) {
 		BroadcastNotifyAction action = action(BroadcastNotifyAction.class);
+		action.setStageRuntime(stageRuntime);
 		action.setEvent(event);
 		return action;
 	}
@@ -222,6 +225,12 @@ public class ExtendedActions extends Actions {
 		return action;
 	}
 
+	public static ScriptSequenceAction scriptSequence(Script script) {
+		ScriptSequenceAction action = action(ScriptSequenceAction.class);
+		action.setScript(script);
+		return action;
+	}
+
 	public static SetBrightnessAction setBrightness(Sprite sprite, Formula brightness) {
 		SetBrightnessAction action = action(SetBrightnessAction.class);
 		action.setSprite(sprite);
@@ -77,6 +77,22 @@ public class GlideToAction extends TemporalAction {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		startX = 0f;
+		startY = 0f;
+		currentX = 0f;
+		currentY = 0f;
+		endX = null;
+		endY = null;
+		sprite = null;
+		duration = null;
+		endXValue = 0f;
+		endYValue = 0f;
+		restart = false;
+	}
+
 	public void setDuration(Formula duration) {
 		this.duration = duration;
 	}
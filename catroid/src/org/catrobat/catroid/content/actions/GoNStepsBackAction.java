@@ -45,6 +45,13 @@ public class GoNStepsBackAction extends TemporalAction {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		steps = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -35,6 +35,12 @@ public class HideAction extends TemporalAction {
 		sprite.look.visible = false;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -64,6 +64,17 @@ public class IfLogicAction extends Action {
 		super.restart();
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		ifAction = null;
+		elseAction = null;
+		ifCondition = null;
+		ifConditionValue = false;
+		isInitialized = false;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -76,15 +87,24 @@ public class IfLogicAction extends Action {
 		this.elseAction = elseAction;
 	}
 
+	public Action getIfAction() {
+		return ifAction;
+	}
+
+	public Action getElseAction() {
+		return elseAction;
+	}
+
 	public void setIfCondition(Formula ifCondition) {
 		this.ifCondition = ifCondition;
 	}
 
 	@Override
 	public void setActor(Actor actor) {
-		super.setActor(actor);
+		// the branches have to be released before this action is reset by its pool
 		ifAction.setActor(actor);
 		elseAction.setActor(actor);
+		super.setActor(actor);
 	}
 
 }
@@ -85,6 +85,12 @@ public class IfOnEdgeBounceAction extends TemporalAction {
 		return (direction > 0f && direction < 180f);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
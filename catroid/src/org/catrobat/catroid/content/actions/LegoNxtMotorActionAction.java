@@ -57,6 +57,14 @@ public class LegoNxtMotorActionAction extends TemporalAction {
 
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		motorEnum = null;
+		speed = null;
+		sprite = null;
+	}
+
 	public void setMotorEnum(Motor motorEnum) {
 		this.motorEnum = motorEnum;
 	}
@@ -46,6 +46,12 @@ public class LegoNxtMotorStopAction extends TemporalAction {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		motorEnum = null;
+	}
+
 	public void setMotorEnum(Motor motorEnum) {
 		this.motorEnum = motorEnum;
 	}
@@ -64,6 +64,14 @@ public class LegoNxtMotorTurnAngleAction extends TemporalAction {
 		 */
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		motorEnum = null;
+		degrees = null;
+		sprite = null;
+	}
+
 	public void setMotorEnum(Motor motorEnum) {
 		this.motorEnum = motorEnum;
 	}
@@ -39,6 +39,14 @@ public class LegoNxtPlayToneAction extends TemporalAction {
 		LegoNXT.sendBTCPlayToneMessage(hertz.interpretInteger(sprite), durationInSeconds.interpretInteger(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		hertz = null;
+		durationInSeconds = null;
+		sprite = null;
+	}
+
 	public void setHertz(Formula hertz) {
 		this.hertz = hertz;
 	}
@@ -42,6 +42,13 @@ public class MoveNStepsAction extends TemporalAction {
 
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		steps = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -45,6 +45,12 @@ public class NextLookAction extends TemporalAction {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
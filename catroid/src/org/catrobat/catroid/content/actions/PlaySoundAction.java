@@ -40,6 +40,13 @@ public class PlaySoundAction extends TemporalAction {
 		}
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		sound = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -38,6 +38,13 @@ public class PointInDirectionAction extends TemporalAction {
 
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		degrees = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
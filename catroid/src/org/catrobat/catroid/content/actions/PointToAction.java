@@ -76,6 +76,13 @@ public class PointToAction extends TemporalAction {
 		sprite.look.setDirectionInUserInterfaceDimensionUnit((float) rotationDegrees);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		pointedSprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -80,6 +80,19 @@ public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.Repeat
 		super.restart();
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		executedCount = 0;
+		repeatCount = null;
+		sprite = null;
+		isCurrentLoopInitialized = false;
+		isRepeatActionInitialized = false;
+		repeatCountValue = 0;
+		currentTime = 0f;
+		isForeverRepeat = false;
+	}
+
 	public void setRepeatCount(Formula repeatCount) {
 		this.repeatCount = repeatCount;
 	}
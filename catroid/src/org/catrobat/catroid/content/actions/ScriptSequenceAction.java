@@ -0,0 +1,64 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.content.actions;
+
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.stage.StageProfiler;
+
+/**
+ * The action sequence of a script. Knows its script, so the {@link StageProfiler} can attribute the time spent in
+ * the sequence to the script, also when the sequence runs inside another action.
+ */
+public class ScriptSequenceAction extends SequenceAction {
+
+	private Script script;
+
+	@Override
+	public boolean act(float delta) {
+		if (!StageProfiler.isEnabled()) {
+			return super.act(delta);
+		}
+		StageProfiler profiler = StageProfiler.getInstance();
+		Script outerScript = profiler.beginScript(script);
+		long startTime = System.nanoTime();
+		boolean finished = super.act(delta);
+		profiler.endScript(outerScript, System.nanoTime() - startTime);
+		return finished;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		script = null;
+	}
+
+	public void setScript(Script script) {
+		this.script = script;
+	}
+
+	public Script getScript() {
+		return script;
+	}
+}
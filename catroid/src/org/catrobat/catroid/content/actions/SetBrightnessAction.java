@@ -37,6 +37,13 @@ public class SetBrightnessAction extends TemporalAction {
 		sprite.look.setBrightnessInUserInterfaceDimensionUnit(brightness.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		brightness = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -44,6 +44,14 @@ public class SetVariableAction extends TemporalAction {
 
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		changeVariable = null;
+		userVariable = null;
+	}
+
 	public void setUserVariable(UserVariable userVariable) {
 		this.userVariable = userVariable;
 	}
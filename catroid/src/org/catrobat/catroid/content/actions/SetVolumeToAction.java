@@ -38,6 +38,13 @@ public class SetVolumeToAction extends TemporalAction {
 		SoundManager.getInstance().setVolume(volume.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		volume = null;
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -37,6 +37,13 @@ public class SetXAction extends TemporalAction {
 		sprite.look.setXInUserInterfaceDimensionUnit(xPosition.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		xPosition = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -37,6 +37,13 @@ public class SetYAction extends TemporalAction {
 		sprite.look.setYInUserInterfaceDimensionUnit(yPosition.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		yPosition = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
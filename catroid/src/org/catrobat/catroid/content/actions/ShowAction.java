@@ -35,6 +35,12 @@ public class ShowAction extends TemporalAction {
 		sprite.look.visible = true;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
@@ -57,6 +57,14 @@ public class SpeakAction extends TemporalAction {
 		PreStageActivity.textToSpeech(text, speechFile, listener, speakParameter);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		text = null;
+		hashText = null;
+		speechFile = null;
+	}
+
 	public void setText(String text) {
 		if (text == null) {
 			text = "";
@@ -37,6 +37,13 @@ public class TurnLeftAction extends TemporalAction {
 		sprite.look.changeDirectionInUserInterfaceDimensionUnit(-degrees.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		degrees = null;
+	}
+
 	public void setSprite(Sprite sprite) {
 		this.sprite = sprite;
 	}
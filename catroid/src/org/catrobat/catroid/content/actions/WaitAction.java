@@ -37,6 +37,13 @@ public class WaitAction extends TemporalAction {
 		super.setDuration(duration.interpretFloat(sprite));
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		sprite = null;
+		duration = null;
+	}
+
 	public void setDelay(Formula delay) {
 		this.duration = delay;
 	}
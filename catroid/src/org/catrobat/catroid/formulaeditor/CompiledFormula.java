@@ -0,0 +1,569 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Flat postfix form of a {@link FormulaElement} tree, evaluated on a primitive double stack.
+ * Results are identical to {@link FormulaElement#interpretRecursive(Sprite)}; subtrees whose
+ * interpretation cannot be resolved at compile time are delegated to the tree interpreter.
+ * User variable references are resolved on the first evaluation and rebound whenever the sprite, the project
+ * or the variables of the project change.
+ * Instances may be shared between threads, e.g. the stage thread and the UI thread which shows formula values in
+ * the bricks and the formula editor. The program is immutable, the variable bindings are published as immutable
+ * snapshots and a caller which finds the evaluation stack in use by another thread evaluates on its own stack.
+ */
+public final class CompiledFormula {
+
+	private static enum Opcode {
+		PUSH_CONSTANT, PUSH_SENSOR, PUSH_OBJECT_SENSOR, PUSH_USER_VARIABLE, INTERPRET_ELEMENT, DISCARD,
+		PLUS, MINUS, MULT, DIVIDE, POW, EQUAL, NOT_EQUAL, GREATER_THAN, GREATER_OR_EQUAL, SMALLER_THAN,
+		SMALLER_OR_EQUAL, LOGICAL_AND, LOGICAL_OR, UNDEFINED_BINARY_OPERATOR,
+		NEGATE, LOGICAL_NOT, UNDEFINED_UNARY_OPERATOR,
+		SIN, COS, TAN, LN, LOG, SQRT, RAND, RAND_ROUNDED, ABS, ROUND, MOD, ARCSIN, ARCCOS, ARCTAN, EXP, MAX, MIN
+	}
+
+	private static final class UserVariableBinding {
+		private final UserVariable[] userVariables;
+		private final UserVariablesContainer userVariablesContainer;
+		private final int modificationCount;
+		private final Sprite sprite;
+
+		private UserVariableBinding(UserVariable[] userVariables, UserVariablesContainer userVariablesContainer,
+				int modificationCount, Sprite sprite) {
+			this.userVariables = userVariables;
+			this.userVariablesContainer = userVariablesContainer;
+			this.modificationCount = modificationCount;
+			this.sprite = sprite;
+		}
+
+		private boolean isBoundTo(UserVariablesContainer userVariablesContainer, Sprite sprite) {
+			return this.userVariablesContainer == userVariablesContainer && this.sprite == sprite
+					&& userVariablesContainer.getModificationCount() == modificationCount;
+		}
+	}
+
+	private final Opcode[] opcodes;
+	private final double[] constants;
+	private final Object[] operands;
+	private final boolean containsUserVariables;
+	private final double[] stack;
+	private final AtomicBoolean stackInUse = new AtomicBoolean(false);
+	private volatile UserVariableBinding userVariableBinding = null;
+
+	private CompiledFormula(Opcode[] opcodes, double[] constants, Object[] operands, int maximumStackSize,
+			boolean containsUserVariables) {
+		this.opcodes = opcodes;
+		this.constants = constants;
+		this.operands = operands;
+		this.containsUserVariables = containsUserVariables;
+		this.stack = new double[maximumStackSize];
+	}
+
+	public static CompiledFormula compile(FormulaElement root) {
+		Compiler compiler = new Compiler();
+		compiler.emitElement(root);
+		return compiler.build();
+	}
+
+	public int getProgramLength() {
+		return opcodes.length;
+	}
+
+	public double evaluate(Sprite sprite) {
+		UserVariable[] userVariables = containsUserVariables ? bindUserVariables(sprite) : null;
+		if (!stackInUse.compareAndSet(false, true)) {
+			return evaluate(sprite, new double[stack.length], userVariables);
+		}
+		try {
+			return evaluate(sprite, stack, userVariables);
+		} finally {
+			stackInUse.set(false);
+		}
+	}
+
+	private double evaluate(Sprite sprite, double[] stack, UserVariable[] userVariables) {
+		final Opcode[] opcodes = this.opcodes;
+		int top = -1;
+		double right;
+
+		for (int index = 0; index < opcodes.length; index++) {
+			switch (opcodes[index]) {
+				case PUSH_CONSTANT:
+					stack[++top] = constants[index];
+					break;
+				case PUSH_SENSOR:
+					stack[++top] = checkDegeneratedDoubleValue(SensorHandler.getSensorValue((Sensors) operands[index]));
+					break;
+				case PUSH_OBJECT_SENSOR:
+					stack[++top] = checkDegeneratedDoubleValue(interpretObjectSensor((Sensors) operands[index], sprite));
+					break;
+				case PUSH_USER_VARIABLE:
+					stack[++top] = checkDegeneratedDoubleValue(interpretUserVariable(userVariables[index]));
+					break;
+				case INTERPRET_ELEMENT:
+					stack[++top] = ((FormulaElement) operands[index]).interpretRecursive(sprite);
+					break;
+				case DISCARD:
+					top--;
+					break;
+
+				case PLUS:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(stack[top] + right);
+					break;
+				case MINUS:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(stack[top] - right);
+					break;
+				case MULT:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(stack[top] * right);
+					break;
+				case DIVIDE:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(stack[top] / right);
+					break;
+				case POW:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.pow(stack[top], right));
+					break;
+				case EQUAL:
+					right = stack[top--];
+					stack[top] = Double.doubleToLongBits(stack[top]) == Double.doubleToLongBits(right) ? 1d : 0d;
+					break;
+				case NOT_EQUAL:
+					right = stack[top--];
+					stack[top] = Double.doubleToLongBits(stack[top]) == Double.doubleToLongBits(right) ? 0d : 1d;
+					break;
+				case GREATER_THAN:
+					right = stack[top--];
+					stack[top] = Double.compare(stack[top], right) > 0 ? 1d : 0d;
+					break;
+				case GREATER_OR_EQUAL:
+					right = stack[top--];
+					stack[top] = Double.compare(stack[top], right) >= 0 ? 1d : 0d;
+					break;
+				case SMALLER_THAN:
+					right = stack[top--];
+					stack[top] = Double.compare(stack[top], right) < 0 ? 1d : 0d;
+					break;
+				case SMALLER_OR_EQUAL:
+					right = stack[top--];
+					stack[top] = Double.compare(stack[top], right) <= 0 ? 1d : 0d;
+					break;
+				case LOGICAL_AND:
+					right = stack[top--];
+					stack[top] = (stack[top] * right) != 0d ? 1d : 0d;
+					break;
+				case LOGICAL_OR:
+					right = stack[top--];
+					stack[top] = stack[top] != 0d || right != 0d ? 1d : 0d;
+					break;
+				case UNDEFINED_BINARY_OPERATOR:
+					top--;
+					stack[top] = 0d;
+					break;
+
+				case NEGATE:
+					stack[top] = -stack[top];
+					break;
+				case LOGICAL_NOT:
+					stack[top] = stack[top] == 0d ? 1d : 0d;
+					break;
+				case UNDEFINED_UNARY_OPERATOR:
+					stack[top] = 0d;
+					break;
+
+				case SIN:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.sin(Math.toRadians(stack[top])));
+					break;
+				case COS:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.cos(Math.toRadians(stack[top])));
+					break;
+				case TAN:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.tan(Math.toRadians(stack[top])));
+					break;
+				case LN:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.log(stack[top]));
+					break;
+				case LOG:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.log10(stack[top]));
+					break;
+				case SQRT:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.sqrt(stack[top]));
+					break;
+				case RAND:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(interpretRandom(stack[top], right, false));
+					break;
+				case RAND_ROUNDED:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(interpretRandom(stack[top], right, true));
+					break;
+				case ABS:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.abs(stack[top]));
+					break;
+				case ROUND:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.round(stack[top]));
+					break;
+				case MOD:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(interpretModulo(stack[top], right));
+					break;
+				case ARCSIN:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.toDegrees(Math.asin(stack[top])));
+					break;
+				case ARCCOS:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.toDegrees(Math.acos(stack[top])));
+					break;
+				case ARCTAN:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.toDegrees(Math.atan(stack[top])));
+					break;
+				case EXP:
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.exp(stack[top]));
+					break;
+				case MAX:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.max(stack[top], right));
+					break;
+				case MIN:
+					right = stack[top--];
+					stack[top] = checkDegeneratedDoubleValue(java.lang.Math.min(stack[top], right));
+					break;
+			}
+		}
+
+		return stack[0];
+	}
+
+	private static double interpretRandom(double left, double right, boolean roundIfIntegerBounds) {
+		double minimum = java.lang.Math.min(left, right);
+		double maximum = java.lang.Math.max(left, right);
+
+		double randomDouble = minimum + (java.lang.Math.random() * (maximum - minimum));
+
+		if (roundIfIntegerBounds && isInteger(minimum) && isInteger(maximum)) {
+			if ((Math.abs(randomDouble) - (int) Math.abs(randomDouble)) >= 0.5) {
+				return (double) ((int) randomDouble) + 1;
+			} else {
+				return (int) randomDouble;
+			}
+		}
+		return randomDouble;
+	}
+
+	private static double interpretModulo(double dividend, double divisor) {
+		if (dividend == 0 || divisor == 0) {
+			return dividend;
+		}
+
+		if (divisor > 0) {
+			while (dividend < 0) {
+				dividend += java.lang.Math.abs(divisor);
+			}
+		} else {
+			if (dividend > 0) {
+				return (dividend % divisor) + divisor;
+			}
+		}
+
+		return dividend % divisor;
+	}
+
+	private static double interpretObjectSensor(Sensors sensor, Sprite sprite) {
+		switch (sensor) {
+			case OBJECT_BRIGHTNESS:
+				return sprite.look.getBrightnessInUserInterfaceDimensionUnit();
+			case OBJECT_GHOSTEFFECT:
+				return sprite.look.getTransparencyInUserInterfaceDimensionUnit();
+			case OBJECT_LAYER:
+				return sprite.look.getZIndex();
+			case OBJECT_ROTATION:
+				return sprite.look.getDirectionInUserInterfaceDimensionUnit();
+			case OBJECT_SIZE:
+				return sprite.look.getSizeInUserInterfaceDimensionUnit();
+			case OBJECT_X:
+				return sprite.look.getXInUserInterfaceDimensionUnit();
+			case OBJECT_Y:
+				return sprite.look.getYInUserInterfaceDimensionUnit();
+			default:
+				return 0d;
+		}
+	}
+
+	private UserVariable[] bindUserVariables(Sprite sprite) {
+		UserVariablesContainer userVariablesContainer = ProjectManager.getInstance().getCurrentProject()
+				.getUserVariables();
+		UserVariableBinding binding = userVariableBinding;
+		if (binding != null && binding.isBoundTo(userVariablesContainer, sprite)) {
+			return binding.userVariables;
+		}
+
+		int modificationCount = userVariablesContainer.getModificationCount();
+		UserVariable[] userVariables = new UserVariable[opcodes.length];
+		for (int index = 0; index < opcodes.length; index++) {
+			if (opcodes[index] == Opcode.PUSH_USER_VARIABLE) {
+				userVariables[index] = userVariablesContainer.getUserVariable((String) operands[index], sprite);
+			}
+		}
+		userVariableBinding = new UserVariableBinding(userVariables, userVariablesContainer, modificationCount,
+				sprite);
+		return userVariables;
+	}
+
+	private static double interpretUserVariable(UserVariable userVariable) {
+		if (userVariable == null) {
+			return FormulaElement.NOT_EXISTING_USER_VARIABLE_INTERPRETATION_VALUE;
+		}
+		return userVariable.readValue();
+	}
+
+	private static double checkDegeneratedDoubleValue(double valueToCheck) {
+		if (valueToCheck == Double.NEGATIVE_INFINITY) {
+			return -Double.MAX_VALUE;
+		}
+		if (valueToCheck == Double.POSITIVE_INFINITY) {
+			return Double.MAX_VALUE;
+		}
+		if (Double.isNaN(valueToCheck)) {
+			return 1.0;
+		}
+		return valueToCheck;
+	}
+
+	private static boolean isInteger(double value) {
+		return Math.abs(value) - (int) Math.abs(value) < Double.MIN_VALUE;
+	}
+
+	private static final class Compiler {
+		private final List<Opcode> opcodes = new ArrayList<Opcode>();
+		private final List<Double> constants = new ArrayList<Double>();
+		private final List<Object> operands = new ArrayList<Object>();
+		private int stackSize = 0;
+		private int maximumStackSize = 1;
+		private boolean containsUserVariables = false;
+
+		private void emitElement(FormulaElement element) {
+			if (!tryEmitElement(element)) {
+				emit(Opcode.INTERPRET_ELEMENT, 0d, element, 1);
+			}
+		}
+
+		private boolean tryEmitElement(FormulaElement element) {
+			if (element == null || element.getElementType() == null) {
+				return false;
+			}
+			FormulaElement leftChild = element.getLeftChild();
+			FormulaElement rightChild = element.getRightChild();
+			String value = element.getValue();
+
+			switch (element.getElementType()) {
+				case BRACKET:
+					if (rightChild == null) {
+						return false;
+					}
+					emitElement(rightChild);
+					return true;
+
+				case NUMBER:
+					if (value == null) {
+						return false;
+					}
+					double number;
+					try {
+						number = Double.parseDouble(value);
+					} catch (NumberFormatException numberFormatException) {
+						return false;
+					}
+					emit(Opcode.PUSH_CONSTANT, checkDegeneratedDoubleValue(number), null, 1);
+					return true;
+
+				case OPERATOR:
+					Operators operator = Operators.getOperatorByValue(value);
+					if (operator == null || rightChild == null) {
+						return false;
+					}
+					if (leftChild != null) {
+						emitElement(leftChild);
+						emitElement(rightChild);
+						emit(getBinaryOperatorOpcode(operator), 0d, null, -1);
+					} else {
+						emitElement(rightChild);
+						emit(getUnaryOperatorOpcode(operator), 0d, null, 0);
+					}
+					return true;
+
+				case FUNCTION:
+					Functions function = Functions.getFunctionByValue(value);
+					if (function == null) {
+						return false;
+					}
+					return tryEmitFunction(function, leftChild, rightChild);
+
+				case SENSOR:
+					Sensors sensor = Sensors.getSensorByValue(value);
+					if (sensor == null) {
+						return false;
+					}
+					emit(sensor.isObjectSensor ? Opcode.PUSH_OBJECT_SENSOR : Opcode.PUSH_SENSOR, 0d, sensor, 1);
+					return true;
+
+				case USER_VARIABLE:
+					emit(Opcode.PUSH_USER_VARIABLE, 0d, value, 1);
+					containsUserVariables = true;
+					return true;
+
+				default:
+					return false;
+			}
+		}
+
+		private boolean tryEmitFunction(Functions function, FormulaElement leftChild, FormulaElement rightChild) {
+			switch (function) {
+				case PI:
+				case TRUE:
+				case FALSE:
+					if (leftChild != null) {
+						emitElement(leftChild);
+						emit(Opcode.DISCARD, 0d, null, -1);
+					}
+					double constant = function == Functions.PI ? java.lang.Math.PI : function == Functions.TRUE ? 1d
+							: 0d;
+					emit(Opcode.PUSH_CONSTANT, constant, null, 1);
+					return true;
+
+				case RAND:
+				case MOD:
+				case MAX:
+				case MIN:
+					if (leftChild == null || rightChild == null) {
+						return false;
+					}
+					emitElement(leftChild);
+					emitElement(rightChild);
+					emit(getBinaryFunctionOpcode(function, leftChild, rightChild), 0d, null, -1);
+					return true;
+
+				default:
+					if (leftChild == null) {
+						return false;
+					}
+					emitElement(leftChild);
+					emit(Opcode.valueOf(function.name()), 0d, null, 0);
+					return true;
+			}
+		}
+
+		private static Opcode getBinaryFunctionOpcode(Functions function, FormulaElement leftChild,
+				FormulaElement rightChild) {
+			switch (function) {
+				case RAND:
+					if (isDecimalNumber(leftChild) || isDecimalNumber(rightChild)) {
+						return Opcode.RAND;
+					}
+					return Opcode.RAND_ROUNDED;
+				case MOD:
+					return Opcode.MOD;
+				case MAX:
+					return Opcode.MAX;
+				default:
+					return Opcode.MIN;
+			}
+		}
+
+		private static boolean isDecimalNumber(FormulaElement element) {
+			return element.getElementType() == ElementType.NUMBER && element.getValue() != null
+					&& element.getValue().contains(".");
+		}
+
+		private static Opcode getBinaryOperatorOpcode(Operators operator) {
+			switch (operator) {
+				case PLUS:
+					return Opcode.PLUS;
+				case MINUS:
+					return Opcode.MINUS;
+				case MULT:
+					return Opcode.MULT;
+				case DIVIDE:
+					return Opcode.DIVIDE;
+				case POW:
+					return Opcode.POW;
+				case EQUAL:
+					return Opcode.EQUAL;
+				case NOT_EQUAL:
+					return Opcode.NOT_EQUAL;
+				case GREATER_THAN:
+					return Opcode.GREATER_THAN;
+				case GREATER_OR_EQUAL:
+					return Opcode.GREATER_OR_EQUAL;
+				case SMALLER_THAN:
+					return Opcode.SMALLER_THAN;
+				case SMALLER_OR_EQUAL:
+					return Opcode.SMALLER_OR_EQUAL;
+				case LOGICAL_AND:
+					return Opcode.LOGICAL_AND;
+				case LOGICAL_OR:
+					return Opcode.LOGICAL_OR;
+				default:
+					return Opcode.UNDEFINED_BINARY_OPERATOR;
+			}
+		}
+
+		private static Opcode getUnaryOperatorOpcode(Operators operator) {
+			switch (operator) {
+				case MINUS:
+					return Opcode.NEGATE;
+				case LOGICAL_NOT:
+					return Opcode.LOGICAL_NOT;
+				default:
+					return Opcode.UNDEFINED_UNARY_OPERATOR;
+			}
+		}
+
+		private void emit(Opcode opcode, double constant, Object operand, int stackSizeChange) {
+			opcodes.add(opcode);
+			constants.add(constant);
+			operands.add(operand);
+			stackSize += stackSizeChange;
+			maximumStackSize = Math.max(maximumStackSize, stackSize);
+		}
+
+		private CompiledFormula build() {
+			int programLength = opcodes.size();
+			double[] constantArray = new double[programLength];
+			for (int index = 0; index < programLength; index++) {
+				constantArray[index] = constants.get(index);
+			}
+			return new CompiledFormula(opcodes.toArray(new Opcode[programLength]), constantArray,
+					operands.toArray(new Object[programLength]), maximumStackSize, containsUserVariables);
+		}
+	}
+}
@@ -31,8 +31,11 @@ import android.widget.TextView;
 import org.catrobat.catroid.R;
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.stage.StageProfiler;
 
 import java.io.Serializable;
+import java.util.Locale;
+import java.util.Set;
 
 public class Formula implements Serializable {
 
@@ -41,6 +44,9 @@ public class Formula implements Serializable {
 	private transient Integer formulaTextFieldId = null;
 	private transient InternFormula internFormula = null;
 	private transient String displayText = null;
+	private transient String cachedDisplayString = null;
+	private transient Locale cachedDisplayStringLocale = null;
+	private transient volatile CompiledFormula compiledFormula = null;
 
 	public Object readResolve() {
 
@@ -98,20 +104,42 @@ public class Formula implements Serializable {
 	}
 
 	public int interpretInteger(Sprite sprite) {
-		Double interpretedValue = formulaTree.interpretRecursive(sprite);
-		return interpretedValue.intValue();
+		return (int) interpretDouble(sprite);
 	}
 
 	public double interpretDouble(Sprite sprite) {
-		return formulaTree.interpretRecursive(sprite);
+		CompiledFormula compiledFormula = this.compiledFormula;
+		if (compiledFormula == null) {
+			compiledFormula = CompiledFormula.compile(formulaTree);
+			this.compiledFormula = compiledFormula;
+		}
+		if (StageProfiler.isEnabled()) {
+			long startTime = System.nanoTime();
+			double value = compiledFormula.evaluate(sprite);
+			StageProfiler.getInstance().recordFormulaEvaluation(sprite, System.nanoTime() - startTime);
+			return value;
+		}
+		return compiledFormula.evaluate(sprite);
 	}
 
 	public float interpretFloat(Sprite sprite) {
 		return (float) interpretDouble(sprite);
 	}
 
+	public int optimize() {
+		FormulaOptimizer optimizer = new FormulaOptimizer();
+		compiledFormula = CompiledFormula.compile(optimizer.foldConstants(formulaTree));
+		return optimizer.getEliminatedElementCount();
+	}
+
+	void collectSensors(Set<Sensors> sensors) {
+		formulaTree.collectSensors(sensors);
+	}
+
 	public void setRoot(FormulaElement formula) {
 		displayText = null;
+		invalidateDisplayStringCache();
+		compiledFormula = null;
 		formulaTree = formula;
 		internFormula = new InternFormula(formula.getInternTokenList());
 
@@ -126,11 +154,22 @@ public class Formula implements Serializable {
 			return displayText;
 		}
 
-		if (context != null) {
+		if (context == null) {
+			return internFormula.getExternFormulaString();
+		}
+
+		Locale locale = Locale.getDefault();
+		if (cachedDisplayString == null || !locale.equals(cachedDisplayStringLocale)) {
 			internFormula.generateExternFormulaStringAndInternExternMapping(context);
+			cachedDisplayString = internFormula.getExternFormulaString();
+			cachedDisplayStringLocale = locale;
 		}
-		return internFormula.getExternFormulaString();
+		return cachedDisplayString;
+	}
 
+	private void invalidateDisplayStringCache() {
+		cachedDisplayString = null;
+		cachedDisplayStringLocale = null;
 	}
 
 	public void refreshTextField(View view) {
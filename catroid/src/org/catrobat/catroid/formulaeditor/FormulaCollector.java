@@ -0,0 +1,91 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import android.util.Log;
+
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.bricks.Brick;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class FormulaCollector {
+	private static final String TAG = FormulaCollector.class.getSimpleName();
+
+	private static Map<Class<?>, List<Field>> formulaFieldsByBrickClass = new HashMap<Class<?>, List<Field>>();
+
+	// Suppress default constructor for noninstantiability
+	private FormulaCollector() {
+		throw new AssertionError();
+	}
+
+	public static List<Formula> getFormulasOfSprite(Sprite sprite) {
+		List<Formula> formulas = new ArrayList<Formula>();
+		for (int scriptIndex = 0; scriptIndex < sprite.getNumberOfScripts(); scriptIndex++) {
+			Script script = sprite.getScript(scriptIndex);
+			for (Brick brick : script.getBrickList()) {
+				formulas.addAll(getFormulasOfBrick(brick));
+			}
+		}
+		return formulas;
+	}
+
+	public static List<Formula> getFormulasOfBrick(Brick brick) {
+		List<Formula> formulas = new ArrayList<Formula>();
+		for (Field field : getFormulaFields(brick.getClass())) {
+			try {
+				Formula formula = (Formula) field.get(brick);
+				if (formula != null) {
+					formulas.add(formula);
+				}
+			} catch (IllegalAccessException illegalAccessException) {
+				Log.e(TAG, Log.getStackTraceString(illegalAccessException));
+			}
+		}
+		return formulas;
+	}
+
+	private static synchronized List<Field> getFormulaFields(Class<?> brickClass) {
+		List<Field> formulaFields = formulaFieldsByBrickClass.get(brickClass);
+		if (formulaFields != null) {
+			return formulaFields;
+		}
+
+		formulaFields = new ArrayList<Field>();
+		for (Class<?> type = brickClass; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (field.getType() == Formula.class) {
+					field.setAccessible(true);
+					formulaFields.add(field);
+				}
+			}
+		}
+		formulaFieldsByBrickClass.put(brickClass, formulaFields);
+		return formulaFields;
+	}
+}
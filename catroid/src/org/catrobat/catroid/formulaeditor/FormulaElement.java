@@ -30,6 +30,7 @@ import org.catrobat.catroid.content.Sprite;
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 public class FormulaElement implements Serializable {
 
@@ -74,6 +75,18 @@ public class FormulaElement implements Serializable {
 		return value;
 	}
 
+	public ElementType getElementType() {
+		return type;
+	}
+
+	public FormulaElement getLeftChild() {
+		return leftChild;
+	}
+
+	public FormulaElement getRightChild() {
+		return rightChild;
+	}
+
 	public List<InternToken> getInternTokenList() {
 		List<InternToken> internTokenList = new LinkedList<InternToken>();
 
@@ -443,6 +456,21 @@ public class FormulaElement implements Serializable {
 		return false;
 	}
 
+	public void collectSensors(Set<Sensors> sensors) {
+		if (type == ElementType.SENSOR) {
+			Sensors sensor = Sensors.getSensorByValue(value);
+			if (sensor != null) {
+				sensors.add(sensor);
+			}
+		}
+		if (leftChild != null) {
+			leftChild.collectSensors(sensors);
+		}
+		if (rightChild != null) {
+			rightChild.collectSensors(sensors);
+		}
+	}
+
 	public boolean isSingleNumberFormula() {
 		if (type == ElementType.OPERATOR) {
 			Operators operator = Operators.getOperatorByValue(value);
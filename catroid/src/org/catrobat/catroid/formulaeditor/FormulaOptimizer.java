@@ -0,0 +1,120 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import android.util.Log;
+
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Folds constant subtrees of a formula into single NUMBER elements. The folding works on a copy of the tree, the
+ * persisted formula tree is never modified.
+ */
+public class FormulaOptimizer {
+	private static final String TAG = FormulaOptimizer.class.getSimpleName();
+
+	private int eliminatedElementCount = 0;
+
+	public static Map<Sprite, Integer> optimizeProject(Project project) {
+		Map<Sprite, Integer> eliminatedElementsPerSprite = new LinkedHashMap<Sprite, Integer>();
+		int eliminatedElementsInProject = 0;
+		for (Sprite sprite : project.getSpriteList()) {
+			int eliminatedElements = optimizeSprite(sprite);
+			eliminatedElementsPerSprite.put(sprite, eliminatedElements);
+			eliminatedElementsInProject += eliminatedElements;
+			Log.d(TAG, "Sprite " + sprite.getName() + ": " + eliminatedElements + " formula elements eliminated");
+		}
+		Log.i(TAG, "Project " + project.getName() + ": " + eliminatedElementsInProject
+				+ " formula elements eliminated by constant folding");
+		return eliminatedElementsPerSprite;
+	}
+
+	public static int optimizeSprite(Sprite sprite) {
+		int eliminatedElements = 0;
+		for (Formula formula : FormulaCollector.getFormulasOfSprite(sprite)) {
+			eliminatedElements += formula.optimize();
+		}
+		return eliminatedElements;
+	}
+
+	public FormulaElement foldConstants(FormulaElement element) {
+		return foldConstants(element, false);
+	}
+
+	public int getEliminatedElementCount() {
+		return eliminatedElementCount;
+	}
+
+	private FormulaElement foldConstants(FormulaElement element, boolean isRandomParameter) {
+		if (element == null) {
+			return null;
+		}
+
+		// RAND only rounds its result if its parameters are no decimal number literals, so keep them as they are
+		boolean isRandomFunction = element.getElementType() == ElementType.FUNCTION
+				&& Functions.RAND.name().equals(element.getValue());
+		FormulaElement leftChild = foldConstants(element.getLeftChild(), isRandomFunction);
+		FormulaElement rightChild = foldConstants(element.getRightChild(), isRandomFunction);
+		FormulaElement foldedElement = new FormulaElement(element.getElementType(), element.getValue(), null,
+				leftChild, rightChild);
+
+		if (isRandomParameter || isRandomFunction || !isFoldable(foldedElement)) {
+			return foldedElement;
+		}
+
+		double constantValue;
+		try {
+			constantValue = foldedElement.interpretRecursive(null);
+		} catch (RuntimeException runtimeException) {
+			Log.w(TAG, "Could not fold constant formula element " + element.getValue(), runtimeException);
+			return foldedElement;
+		}
+
+		eliminatedElementCount += countElements(foldedElement) - 1;
+		return new FormulaElement(ElementType.NUMBER, Double.toString(constantValue), null);
+	}
+
+	private boolean isFoldable(FormulaElement element) {
+		ElementType type = element.getElementType();
+		if (type != ElementType.OPERATOR && type != ElementType.FUNCTION && type != ElementType.BRACKET) {
+			return false;
+		}
+		return isNumberOrEmpty(element.getLeftChild()) && isNumberOrEmpty(element.getRightChild());
+	}
+
+	private boolean isNumberOrEmpty(FormulaElement element) {
+		return element == null || element.getElementType() == ElementType.NUMBER;
+	}
+
+	private int countElements(FormulaElement element) {
+		if (element == null) {
+			return 0;
+		}
+		return 1 + countElements(element.getLeftChild()) + countElements(element.getRightChild());
+	}
+}
@@ -29,6 +29,7 @@ import org.catrobat.catroid.R;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 
 public class InternFormula {
 
@@ -59,6 +60,9 @@ public class InternFormula {
 
 	private InternFormulaParser internTokenFormulaParser;
 
+	private InternToExternGenerator internToExternGenerator = null;
+	private Locale internToExternGeneratorLocale = null;
+
 	public InternFormula(List<InternToken> internTokenList) {
 
 		this.internTokenFormulaList = internTokenList;
@@ -448,11 +452,19 @@ public class InternFormula {
 	}
 
 	public void generateExternFormulaStringAndInternExternMapping(Context context) {
-		InternToExternGenerator internToExternGenerator = new InternToExternGenerator(context);
+		Locale locale = Locale.getDefault();
+		if (internToExternGenerator == null || !locale.equals(internToExternGeneratorLocale)) {
+			internToExternGenerator = new InternToExternGenerator(context);
+			internToExternGeneratorLocale = locale;
+		} else {
+			internToExternGenerator.setContext(context);
+		}
 
 		internToExternGenerator.generateExternStringAndMapping(internTokenFormulaList);
 		externFormulaString = internToExternGenerator.getGeneratedExternFormulaString();
 		externInternRepresentationMapping = internToExternGenerator.getGeneratedExternInternRepresentationMapping();
+		// the generator is kept for the next edit, but must not keep the activity alive
+		internToExternGenerator.setContext(null);
 
 	}
 
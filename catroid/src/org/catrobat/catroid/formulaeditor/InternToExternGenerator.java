@@ -23,13 +23,12 @@
 package org.catrobat.catroid.formulaeditor;
 
 import android.content.Context;
-import android.util.Log;
 
 import org.catrobat.catroid.R;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 
 public class InternToExternGenerator {
 
@@ -37,6 +36,13 @@ public class InternToExternGenerator {
 	private ExternInternRepresentationMapping generatedExternInternRepresentationMapping;
 	private Context context;
 
+	private InternTokenType[] previousTokenTypes = new InternTokenType[0];
+	private String[] previousTokenValues = new String[0];
+	private String[] previousExternTokenStrings = new String[0];
+
+	private static final HashMap<Integer, String> EXTERN_STRING_CACHE = new HashMap<Integer, String>();
+	private static Locale externStringCacheLocale = null;
+
 	private static final HashMap<String, Integer> INTERN_EXTERN_LANGUAGE_CONVERTER_MAP = new HashMap<String, Integer>();
 	static {
 		INTERN_EXTERN_LANGUAGE_CONVERTER_MAP.put(Operators.DIVIDE.name(), R.string.formula_editor_operator_divide);
@@ -110,53 +116,75 @@ public class InternToExternGenerator {
 		generatedExternInternRepresentationMapping = new ExternInternRepresentationMapping();
 	}
 
-	public void generateExternStringAndMapping(List<InternToken> internTokenFormula) {
-		Log.i("info", "generateExternStringAndMapping:enter");
-
-		List<InternToken> internTokenList = new LinkedList<InternToken>();
+	void setContext(Context context) {
+		this.context = context;
+	}
 
+	/**
+	 * Generates the extern string of the given tokens. Extern strings of tokens which are unchanged at the start
+	 * and the end of the list since the previous call of this generator are reused, so an edit only resolves the
+	 * tokens it touched.
+	 */
+	public void generateExternStringAndMapping(List<InternToken> internTokenFormula) {
+		int tokenCount = internTokenFormula.size();
+		InternTokenType[] tokenTypes = new InternTokenType[tokenCount];
+		String[] tokenValues = new String[tokenCount];
+		int tokenIndex = 0;
 		for (InternToken internToken : internTokenFormula) {
-			internTokenList.add(internToken);
+			tokenTypes[tokenIndex] = internToken.getInternTokenType();
+			tokenValues[tokenIndex] = internToken.getTokenStringValue();
+			tokenIndex++;
 		}
 
-		generatedExternInternRepresentationMapping = new ExternInternRepresentationMapping();
-
-		generatedExternFormulaString = "";
-		InternToken currentToken = null;
-		InternToken nextToken = null;
-		String externTokenString;
-		int externStringStartIndex;
-		int externStringEndIndex;
-
-		int internTokenListIndex = 0;
+		int previousTokenCount = previousTokenTypes.length;
+		int reusableTokenCount = Math.min(tokenCount, previousTokenCount);
+		int unchangedPrefix = 0;
+		while (unchangedPrefix < reusableTokenCount
+				&& isUnchanged(unchangedPrefix, unchangedPrefix, tokenTypes, tokenValues)) {
+			unchangedPrefix++;
+		}
+		int unchangedSuffix = 0;
+		while (unchangedSuffix < reusableTokenCount - unchangedPrefix
+				&& isUnchanged(previousTokenCount - 1 - unchangedSuffix, tokenCount - 1 - unchangedSuffix, tokenTypes,
+						tokenValues)) {
+			unchangedSuffix++;
+		}
 
-		while (internTokenList.isEmpty() == false) {
-			if (appendWhiteSpace(currentToken, nextToken)) {
-				generatedExternFormulaString += " ";
+		String[] externTokenStrings = new String[tokenCount];
+		System.arraycopy(previousExternTokenStrings, 0, externTokenStrings, 0, unchangedPrefix);
+		System.arraycopy(previousExternTokenStrings, previousTokenCount - unchangedSuffix, externTokenStrings,
+				tokenCount - unchangedSuffix, unchangedSuffix);
+		tokenIndex = 0;
+		for (InternToken internToken : internTokenFormula) {
+			if (tokenIndex >= unchangedPrefix && tokenIndex < tokenCount - unchangedSuffix) {
+				externTokenStrings[tokenIndex] = generateExternStringFromToken(internToken);
 			}
-			externStringStartIndex = generatedExternFormulaString.length();
-			currentToken = internTokenList.get(0);
+			tokenIndex++;
+		}
 
-			if (internTokenList.size() < 2) {
-				nextToken = null;
-			} else {
-				nextToken = internTokenList.get(1);
+		generatedExternInternRepresentationMapping = new ExternInternRepresentationMapping();
+		StringBuilder externFormulaStringBuilder = new StringBuilder();
+		for (tokenIndex = 0; tokenIndex < tokenCount; tokenIndex++) {
+			if (appendWhiteSpace(tokenIndex, tokenTypes)) {
+				externFormulaStringBuilder.append(' ');
 			}
-
-			externTokenString = generateExternStringFromToken(currentToken);
-			generatedExternFormulaString += externTokenString;
-			externStringEndIndex = generatedExternFormulaString.length();
-
-			generatedExternInternRepresentationMapping.putMapping(externStringStartIndex, externStringEndIndex,
-					internTokenListIndex);
-
-			internTokenList.remove(0);
-			internTokenListIndex++;
-
+			int externStringStartIndex = externFormulaStringBuilder.length();
+			externFormulaStringBuilder.append(externTokenStrings[tokenIndex]);
+			generatedExternInternRepresentationMapping.putMapping(externStringStartIndex,
+					externFormulaStringBuilder.length(), tokenIndex);
 		}
+		externFormulaStringBuilder.append(' ');
+		generatedExternFormulaString = externFormulaStringBuilder.toString();
 
-		generatedExternFormulaString += " ";
+		previousTokenTypes = tokenTypes;
+		previousTokenValues = tokenValues;
+		previousExternTokenStrings = externTokenStrings;
+	}
 
+	private boolean isUnchanged(int previousIndex, int index, InternTokenType[] tokenTypes, String[] tokenValues) {
+		String previousValue = previousTokenValues[previousIndex];
+		return previousTokenTypes[previousIndex] == tokenTypes[index]
+				&& (previousValue == null ? tokenValues[index] == null : previousValue.equals(tokenValues[index]));
 	}
 
 	private String generateExternStringFromToken(InternToken internToken) {
@@ -197,15 +225,12 @@ public class InternToExternGenerator {
 		}
 	}
 
-	private boolean appendWhiteSpace(InternToken currentToken, InternToken nextToken) {
-		if (currentToken == null) {
+	private boolean appendWhiteSpace(int tokenIndex, InternTokenType[] tokenTypes) {
+		if (tokenIndex == 0) {
 			return false;
 		}
-		if (nextToken == null) {
-			return true;
-		}
 
-		switch (nextToken.getInternTokenType()) {
+		switch (tokenTypes[tokenIndex]) {
 			case FUNCTION_PARAMETERS_BRACKET_OPEN:
 				return false;
 		}
@@ -226,6 +251,21 @@ public class InternToExternGenerator {
 		if (stringResourceID == null) {
 			return null;
 		}
-		return context.getString(stringResourceID);
+		return getCachedExternString(stringResourceID, context);
+	}
+
+	private static synchronized String getCachedExternString(int stringResourceID, Context context) {
+		Locale locale = Locale.getDefault();
+		if (!locale.equals(externStringCacheLocale)) {
+			EXTERN_STRING_CACHE.clear();
+			externStringCacheLocale = locale;
+		}
+
+		String externString = EXTERN_STRING_CACHE.get(stringResourceID);
+		if (externString == null) {
+			externString = context.getString(stringResourceID);
+			EXTERN_STRING_CACHE.put(stringResourceID, externString);
+		}
+		return externString;
 	}
 }
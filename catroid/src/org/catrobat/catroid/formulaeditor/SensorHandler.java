@@ -26,23 +26,24 @@ import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
+import android.os.SystemClock;
 import android.util.Log;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 public final class SensorHandler implements SensorEventListener, SensorCustomEventListener {
 	private static final String TAG = SensorHandler.class.getSimpleName();
 	private static SensorHandler instance = null;
 	private SensorManagerInterface sensorManager = null;
 	private Sensor accelerometerSensor = null;
 	private Sensor rotationVectorSensor = null;
-	private float[] rotationMatrix = new float[16];
-	private float[] rotationVector = new float[3];
 	public static final float RADIAN_TO_DEGREE_CONST = 180f / (float) Math.PI;
 
-	private float linearAcceleartionX = 0f;
-	private float linearAcceleartionY = 0f;
-	private float linearAcceleartionZ = 0f;
-
-	private float loudness = 0f;
+	private final AtomicReference<SensorSample> latestSample = new AtomicReference<SensorSample>(
+			SensorSample.EMPTY);
+	private final AtomicReference<SensorSnapshot> latestSnapshot = new AtomicReference<SensorSnapshot>();
+	private volatile SensorSnapshot frameSnapshot = null;
+	private volatile SensorPolicy policy = SensorPolicy.createForAllSensors();
 
 	private SensorHandler(Context context) {
 		sensorManager = new SensorManager(
@@ -52,17 +53,29 @@ public final class SensorHandler implements SensorEventListener, SensorCustomEve
 	}
 
 	public static void startSensorListener(Context context) {
+		startSensorListener(context, SensorPolicy.createForAllSensors());
+	}
+
+	public static void startSensorListener(Context context, SensorPolicy policy) {
 
 		if (instance == null) {
 			instance = new SensorHandler(context);
 		}
+		instance.frameSnapshot = null;
+		instance.policy = policy;
 		instance.sensorManager.unregisterListener((SensorEventListener) instance);
 		instance.sensorManager.unregisterListener((SensorCustomEventListener) instance);
-		instance.sensorManager.registerListener(instance, instance.accelerometerSensor,
-				android.hardware.SensorManager.SENSOR_DELAY_NORMAL);
-		instance.sensorManager.registerListener(instance, instance.rotationVectorSensor,
-				android.hardware.SensorManager.SENSOR_DELAY_NORMAL);
-		instance.sensorManager.registerListener(instance, Sensors.LOUDNESS);
+		if (policy.usesAcceleration()) {
+			instance.sensorManager.registerListener(instance, instance.accelerometerSensor,
+					policy.getAccelerationRate());
+		}
+		if (policy.usesRotationVector()) {
+			instance.sensorManager.registerListener(instance, instance.rotationVectorSensor,
+					policy.getRotationVectorRate());
+		}
+		if (policy.usesLoudness()) {
+			instance.sensorManager.registerListener(instance, Sensors.LOUDNESS);
+		}
 	}
 
 	public static void registerListener(SensorEventListener listener) {
@@ -86,6 +99,7 @@ public final class SensorHandler implements SensorEventListener, SensorCustomEve
 		if (instance == null) {
 			return;
 		}
+		instance.frameSnapshot = null;
 		instance.sensorManager.unregisterListener((SensorEventListener) instance);
 		instance.sensorManager.unregisterListener((SensorCustomEventListener) instance);
 	}
@@ -94,61 +108,47 @@ public final class SensorHandler implements SensorEventListener, SensorCustomEve
 		if (instance.sensorManager == null) {
 			return 0d;
 		}
-		Double sensorValue = 0.0;
-		switch (sensor) {
-
-			case X_ACCELERATION:
-				return Double.valueOf(instance.linearAcceleartionX);
-
-			case Y_ACCELERATION:
-				return Double.valueOf(instance.linearAcceleartionY);
-
-			case Z_ACCELERATION:
-				return Double.valueOf(instance.linearAcceleartionZ);
-
-			case COMPASS_DIRECTION:
-				float[] orientations = new float[3];
-				android.hardware.SensorManager.getRotationMatrixFromVector(instance.rotationMatrix,
-						instance.rotationVector);
-				android.hardware.SensorManager.getOrientation(instance.rotationMatrix, orientations);
-				sensorValue = Double.valueOf(orientations[0]);
-				return sensorValue * RADIAN_TO_DEGREE_CONST * -1f;
-
-			case X_INCLINATION:
-
-				orientations = new float[3];
-				android.hardware.SensorManager.getRotationMatrixFromVector(instance.rotationMatrix,
-						instance.rotationVector);
-				android.hardware.SensorManager.getOrientation(instance.rotationMatrix, orientations);
-				sensorValue = Double.valueOf(orientations[2]);
-				return sensorValue * RADIAN_TO_DEGREE_CONST * -1f;
-
-			case Y_INCLINATION:
-				orientations = new float[3];
-				android.hardware.SensorManager.getRotationMatrixFromVector(instance.rotationMatrix,
-						instance.rotationVector);
-				android.hardware.SensorManager.getOrientation(instance.rotationMatrix, orientations);
-
-				float xInclinationUsedToExtendRangeOfRoll = orientations[2] * RADIAN_TO_DEGREE_CONST * -1f;
+		return instance.getVisibleSnapshot().getValue(sensor);
+	}
 
-				sensorValue = Double.valueOf(orientations[1]);
+	/**
+	 * Called by the stage once per rendered frame. Until the next call, all sensor reads return the values of the
+	 * same snapshot, which is only recomputed if a sensor changed.
+	 */
+	public static void beginFrame() {
+		if (instance == null) {
+			return;
+		}
+		instance.frameSnapshot = instance.getLatestSnapshot();
+	}
 
-				if (Math.abs(xInclinationUsedToExtendRangeOfRoll) <= 90f) {
-					return sensorValue * RADIAN_TO_DEGREE_CONST * -1f;
-				} else {
-					float uncorrectedYInclination = sensorValue.floatValue() * RADIAN_TO_DEGREE_CONST * -1f;
+	private SensorSnapshot getVisibleSnapshot() {
+		SensorSnapshot snapshot = frameSnapshot;
+		return snapshot == null ? getLatestSnapshot() : snapshot;
+	}
 
-					if (uncorrectedYInclination > 0f) {
-						return (double) 180f - uncorrectedYInclination;
-					} else {
-						return (double) -180f - uncorrectedYInclination;
-					}
-				}
+	// snapshots are immutable, so readers on the GL thread and on the UI thread may both derive one from the
+	// latest sample, only one of them is kept for later reads
+	private SensorSnapshot getLatestSnapshot() {
+		SensorSample sample = latestSample.get();
+		SensorSnapshot snapshot = latestSnapshot.get();
+		if (snapshot != null && snapshot.getSample() == sample) {
+			return snapshot;
+		}
+		SensorSnapshot updatedSnapshot = new SensorSnapshot(sample);
+		latestSnapshot.compareAndSet(snapshot, updatedSnapshot);
+		return updatedSnapshot;
+	}
 
-			case LOUDNESS:
-				return Double.valueOf(instance.loudness);
+	/**
+	 * Returns the time in SystemClock.uptimeMillis() at which the value of the given sensor, as currently seen by
+	 * formulas, was received. Returns 0 if no value was received yet.
+	 */
+	public static long getSampleTimestamp(Sensors sensor) {
+		if (instance == null) {
+			return SensorSample.NO_TIMESTAMP;
 		}
-		return 0d;
+		return instance.getVisibleSnapshot().getSample().getTimestamp(sensor);
 	}
 
 	@Override
@@ -159,14 +159,10 @@ public final class SensorHandler implements SensorEventListener, SensorCustomEve
 	public void onSensorChanged(SensorEvent event) {
 		switch (event.sensor.getType()) {
 			case Sensor.TYPE_LINEAR_ACCELERATION:
-				linearAcceleartionX = event.values[0];
-				linearAcceleartionY = event.values[1];
-				linearAcceleartionZ = event.values[2];
+				publishAcceleration(event.values, SystemClock.uptimeMillis());
 				break;
 			case Sensor.TYPE_ROTATION_VECTOR:
-				rotationVector[0] = event.values[0];
-				rotationVector[1] = event.values[1];
-				rotationVector[2] = event.values[2];
+				publishRotationVector(event.values, SystemClock.uptimeMillis());
 				break;
 			default:
 				Log.v(TAG, "Unhandled sensor type: " + event.sensor.getType());
@@ -177,10 +173,50 @@ public final class SensorHandler implements SensorEventListener, SensorCustomEve
 	public void onCustomSensorChanged(SensorCustomEvent event) {
 		switch (event.sensor) {
 			case LOUDNESS:
-				instance.loudness = event.values[0];
+				instance.publishLoudness(event.values[0], SystemClock.uptimeMillis());
 				break;
 			default:
 				Log.v(TAG, "Unhandled sensor: " + event.sensor);
 		}
 	}
+
+	// the sensor thread and the loudness thread both publish, so a sample is only replaced if no other
+	// sample was published in the meantime
+	private void publishAcceleration(float[] values, long timestamp) {
+		SensorPolicy policy = this.policy;
+		SensorSample current;
+		SensorSample next;
+		do {
+			current = latestSample.get();
+			if (current.accelerationTimestamp == SensorSample.NO_TIMESTAMP) {
+				next = current.withAcceleration(values[0], values[1], values[2], timestamp);
+			} else {
+				next = current.withAcceleration(policy.filter(current.linearAccelerationX, values[0]),
+						policy.filter(current.linearAccelerationY, values[1]),
+						policy.filter(current.linearAccelerationZ, values[2]), timestamp);
+			}
+		} while (!latestSample.compareAndSet(current, next));
+	}
+
+	private void publishRotationVector(float[] values, long timestamp) {
+		SensorPolicy policy = this.policy;
+		float[] filteredValues = new float[3];
+		SensorSample current;
+		do {
+			current = latestSample.get();
+			float[] currentValues = current.getRotationVector();
+			boolean firstValue = current.rotationVectorTimestamp == SensorSample.NO_TIMESTAMP;
+			for (int index = 0; index < filteredValues.length; index++) {
+				filteredValues[index] = firstValue ? values[index] : policy.filter(currentValues[index],
+						values[index]);
+			}
+		} while (!latestSample.compareAndSet(current, current.withRotationVector(filteredValues, timestamp)));
+	}
+
+	private void publishLoudness(float loudness, long timestamp) {
+		SensorSample current;
+		do {
+			current = latestSample.get();
+		} while (!latestSample.compareAndSet(current, current.withLoudness(loudness, timestamp)));
+	}
 }
@@ -0,0 +1,133 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Describes which device sensors have to be registered, at which rate, and how their values are smoothed.
+ */
+public final class SensorPolicy {
+	public static final float NO_FILTERING = 1f;
+
+	private static final Set<Sensors> ACCELERATION_SENSORS = EnumSet.of(Sensors.X_ACCELERATION,
+			Sensors.Y_ACCELERATION, Sensors.Z_ACCELERATION);
+	private static final Set<Sensors> INCLINATION_SENSORS = EnumSet.of(Sensors.X_INCLINATION, Sensors.Y_INCLINATION);
+
+	private final Set<Sensors> usedSensors;
+	private final int fastRate;
+	private volatile float lowPassFilterFactor = NO_FILTERING;
+
+	private SensorPolicy(Set<Sensors> usedSensors, int fastRate) {
+		this.usedSensors = usedSensors;
+		this.fastRate = fastRate;
+	}
+
+	/**
+	 * All sensors at the normal rate, e.g. for evaluating a single formula in the formula editor.
+	 */
+	public static SensorPolicy createForAllSensors() {
+		return new SensorPolicy(EnumSet.allOf(Sensors.class), android.hardware.SensorManager.SENSOR_DELAY_NORMAL);
+	}
+
+	/**
+	 * Only the sensors referenced by formulas of the project. Acceleration and inclination are usually used to
+	 * steer objects, so they are sampled at game rate.
+	 */
+	public static SensorPolicy createForProject(Project project) {
+		Set<Sensors> usedSensors = EnumSet.noneOf(Sensors.class);
+		for (Sprite sprite : project.getSpriteList()) {
+			for (Formula formula : FormulaCollector.getFormulasOfSprite(sprite)) {
+				formula.collectSensors(usedSensors);
+			}
+		}
+		return new SensorPolicy(usedSensors, android.hardware.SensorManager.SENSOR_DELAY_GAME);
+	}
+
+	public boolean isUsed(Sensors sensor) {
+		return usedSensors.contains(sensor);
+	}
+
+	public boolean usesAcceleration() {
+		return containsAny(ACCELERATION_SENSORS);
+	}
+
+	public boolean usesRotationVector() {
+		return isUsed(Sensors.COMPASS_DIRECTION) || containsAny(INCLINATION_SENSORS);
+	}
+
+	public boolean usesLoudness() {
+		return isUsed(Sensors.LOUDNESS);
+	}
+
+	public int getAccelerationRate() {
+		return fastRate;
+	}
+
+	public int getRotationVectorRate() {
+		if (containsAny(INCLINATION_SENSORS)) {
+			return fastRate;
+		}
+		return android.hardware.SensorManager.SENSOR_DELAY_NORMAL;
+	}
+
+	public float getLowPassFilterFactor() {
+		return lowPassFilterFactor;
+	}
+
+	/**
+	 * Sets the weight of a new raw value in the exponential moving average of the acceleration and rotation values.
+	 * {@link #NO_FILTERING} passes raw values through.
+	 */
+	public void setLowPassFilterFactor(float lowPassFilterFactor) {
+		if (!(lowPassFilterFactor > 0f && lowPassFilterFactor <= NO_FILTERING)) {
+			throw new IllegalArgumentException("Low pass filter factor must be in (0, 1]: " + lowPassFilterFactor);
+		}
+		this.lowPassFilterFactor = lowPassFilterFactor;
+	}
+
+	/**
+	 * @return the next value of the exponential moving average, which moves from the previous value towards the
+	 *         raw value by the low pass filter factor
+	 */
+	public float filter(float previousValue, float rawValue) {
+		float factor = lowPassFilterFactor;
+		if (factor == NO_FILTERING) {
+			return rawValue;
+		}
+		return previousValue + factor * (rawValue - previousValue);
+	}
+
+	private boolean containsAny(Set<Sensors> sensors) {
+		for (Sensors sensor : sensors) {
+			if (usedSensors.contains(sensor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
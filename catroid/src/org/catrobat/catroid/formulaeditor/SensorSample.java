@@ -0,0 +1,97 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+/**
+ * An immutable set of raw sensor values. Sensor callbacks publish a new sample for every event, so readers on
+ * other threads always see values that belong together.
+ */
+final class SensorSample {
+	static final long NO_TIMESTAMP = 0L;
+	static final SensorSample EMPTY = new SensorSample(0f, 0f, 0f, new float[3], 0f, NO_TIMESTAMP, NO_TIMESTAMP,
+			NO_TIMESTAMP);
+
+	final float linearAccelerationX;
+	final float linearAccelerationY;
+	final float linearAccelerationZ;
+	private final float[] rotationVector;
+	final float loudness;
+
+	final long accelerationTimestamp;
+	final long rotationVectorTimestamp;
+	final long loudnessTimestamp;
+
+	private SensorSample(float linearAccelerationX, float linearAccelerationY, float linearAccelerationZ,
+			float[] rotationVector, float loudness, long accelerationTimestamp, long rotationVectorTimestamp,
+			long loudnessTimestamp) {
+		this.linearAccelerationX = linearAccelerationX;
+		this.linearAccelerationY = linearAccelerationY;
+		this.linearAccelerationZ = linearAccelerationZ;
+		this.rotationVector = rotationVector;
+		this.loudness = loudness;
+		this.accelerationTimestamp = accelerationTimestamp;
+		this.rotationVectorTimestamp = rotationVectorTimestamp;
+		this.loudnessTimestamp = loudnessTimestamp;
+	}
+
+	SensorSample withAcceleration(float x, float y, float z, long timestamp) {
+		return new SensorSample(x, y, z, rotationVector, loudness, timestamp, rotationVectorTimestamp,
+				loudnessTimestamp);
+	}
+
+	SensorSample withRotationVector(float[] values, long timestamp) {
+		float[] newRotationVector = new float[3];
+		System.arraycopy(values, 0, newRotationVector, 0, newRotationVector.length);
+		return new SensorSample(linearAccelerationX, linearAccelerationY, linearAccelerationZ, newRotationVector,
+				loudness, accelerationTimestamp, timestamp, loudnessTimestamp);
+	}
+
+	SensorSample withLoudness(float loudness, long timestamp) {
+		return new SensorSample(linearAccelerationX, linearAccelerationY, linearAccelerationZ, rotationVector,
+				loudness, accelerationTimestamp, rotationVectorTimestamp, timestamp);
+	}
+
+	/**
+	 * Returns the rotation vector of this sample. The array is shared and must not be modified.
+	 */
+	float[] getRotationVector() {
+		return rotationVector;
+	}
+
+	long getTimestamp(Sensors sensor) {
+		switch (sensor) {
+			case X_ACCELERATION:
+			case Y_ACCELERATION:
+			case Z_ACCELERATION:
+				return accelerationTimestamp;
+			case COMPASS_DIRECTION:
+			case X_INCLINATION:
+			case Y_INCLINATION:
+				return rotationVectorTimestamp;
+			case LOUDNESS:
+				return loudnessTimestamp;
+			default:
+				return NO_TIMESTAMP;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+/**
+ * The values of all device sensors derived from one sample, as seen by formulas. The orientation math is done once
+ * per sample instead of once per sensor read. A snapshot is immutable, so it is shared between threads without
+ * locking.
+ */
+final class SensorSnapshot {
+	private final SensorSample sample;
+
+	private final double xAcceleration;
+	private final double yAcceleration;
+	private final double zAcceleration;
+	private final double compassDirection;
+	private final double xInclination;
+	private final double yInclination;
+	private final double loudness;
+
+	SensorSnapshot(SensorSample sample) {
+		float[] rotationMatrix = new float[16];
+		float[] orientations = new float[3];
+		this.sample = sample;
+		xAcceleration = sample.linearAccelerationX;
+		yAcceleration = sample.linearAccelerationY;
+		zAcceleration = sample.linearAccelerationZ;
+		loudness = sample.loudness;
+
+		android.hardware.SensorManager.getRotationMatrixFromVector(rotationMatrix, sample.getRotationVector());
+		android.hardware.SensorManager.getOrientation(rotationMatrix, orientations);
+
+		compassDirection = Double.valueOf(orientations[0]) * SensorHandler.RADIAN_TO_DEGREE_CONST * -1f;
+		xInclination = Double.valueOf(orientations[2]) * SensorHandler.RADIAN_TO_DEGREE_CONST * -1f;
+
+		float xInclinationUsedToExtendRangeOfRoll = orientations[2] * SensorHandler.RADIAN_TO_DEGREE_CONST * -1f;
+		Double sensorValue = Double.valueOf(orientations[1]);
+		if (Math.abs(xInclinationUsedToExtendRangeOfRoll) <= 90f) {
+			yInclination = sensorValue * SensorHandler.RADIAN_TO_DEGREE_CONST * -1f;
+		} else {
+			float uncorrectedYInclination = sensorValue.floatValue() * SensorHandler.RADIAN_TO_DEGREE_CONST * -1f;
+
+			if (uncorrectedYInclination > 0f) {
+				yInclination = (double) 180f - uncorrectedYInclination;
+			} else {
+				yInclination = (double) -180f - uncorrectedYInclination;
+			}
+		}
+	}
+
+	SensorSample getSample() {
+		return sample;
+	}
+
+	double getValue(Sensors sensor) {
+		switch (sensor) {
+			case X_ACCELERATION:
+				return xAcceleration;
+			case Y_ACCELERATION:
+				return yAcceleration;
+			case Z_ACCELERATION:
+				return zAcceleration;
+			case COMPASS_DIRECTION:
+				return compassDirection;
+			case X_INCLINATION:
+				return xInclination;
+			case Y_INCLINATION:
+				return yInclination;
+			case LOUDNESS:
+				return loudness;
+			default:
+				return 0d;
+		}
+	}
+}
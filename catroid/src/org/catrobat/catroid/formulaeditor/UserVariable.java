@@ -29,6 +29,8 @@ public class UserVariable implements Serializable {
 
 	private String name;
 	private transient double value;
+	private transient UserVariableValueStore valueStore = null;
+	private transient int valueSlot;
 
 	public UserVariable(final String name) {
 		this.name = name;
@@ -41,15 +43,37 @@ public class UserVariable implements Serializable {
 	}
 
 	public Double getValue() {
-		return value;
+		return readValue();
 	}
 
 	public void setValue(double value) {
-		this.value = value;
+		if (valueStore == null) {
+			this.value = value;
+		} else {
+			valueStore.set(valueSlot, value);
+		}
 	}
 
 	public String getName() {
 		return name;
 	}
 
+	double readValue() {
+		if (valueStore == null) {
+			return value;
+		}
+		return valueStore.get(valueSlot);
+	}
+
+	void attachToValueStore(UserVariableValueStore store) {
+		double currentValue = readValue();
+		valueStore = store;
+		valueSlot = store.allocate(currentValue);
+	}
+
+	void detachFromValueStore() {
+		value = readValue();
+		valueStore = null;
+	}
+
 }
@@ -20,34 +20,37 @@
  *  You should have received a copy of the GNU Affero General Public License
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.catrobat.catroid.content;
-
-import com.badlogic.gdx.scenes.scene2d.Event;
-import com.badlogic.gdx.scenes.scene2d.EventListener;
-
-import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
-
-public class BroadcastListener implements EventListener {
-
-	@Override
-	public boolean handle(Event event) {
-		if (event instanceof BroadcastEvent) {
-			BroadcastEvent broadcastEvent = (BroadcastEvent) event;
-			if (broadcastEvent.getType().equals(BroadcastType.broadcast)) {
-				handleBroadcastEvent(broadcastEvent, broadcastEvent.getBroadcastMessage());
-				return true;
-			}
-			if (broadcastEvent.getType().equals(BroadcastType.broadcastWait)) {
-				handleBroadcastFromWaiterEvent(broadcastEvent, broadcastEvent.getBroadcastMessage());
-				return true;
-			}
+package org.catrobat.catroid.formulaeditor;
+
+import java.util.Arrays;
+
+final class UserVariableValueStore {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private double[] values = new double[INITIAL_CAPACITY];
+	private int size = 0;
+
+	int allocate(double initialValue) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
 		}
-		return false;
+		values[size] = initialValue;
+		return size++;
+	}
+
+	double get(int slot) {
+		return values[slot];
+	}
+
+	void set(int slot, double value) {
+		values[slot] = value;
 	}
 
-	public void handleBroadcastEvent(BroadcastEvent event, String broadcastMessage) {
+	void fill(double value) {
+		Arrays.fill(values, 0, size, value);
 	}
 
-	public void handleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage) {
+	int size() {
+		return size;
 	}
 }
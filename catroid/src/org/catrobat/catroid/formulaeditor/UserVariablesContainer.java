@@ -32,8 +32,8 @@ import org.catrobat.catroid.ui.adapter.UserVariableAdapter;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +44,11 @@ public class UserVariablesContainer implements Serializable {
 	private List<UserVariable> projectVariables;
 	@XStreamAlias("objectVariableList")
 	private Map<Sprite, List<UserVariable>> spriteVariables;
+	private transient int modificationCount = 0;
+
+	private transient Map<String, UserVariable> projectVariableIndex;
+	private transient Map<Sprite, Map<String, UserVariable>> spriteVariableIndex;
+	private transient UserVariableValueStore valueStore;
 
 	public UserVariablesContainer() {
 		projectVariables = new ArrayList<UserVariable>();
@@ -55,10 +60,14 @@ public class UserVariablesContainer implements Serializable {
 	}
 
 	public UserVariable getUserVariable(String userVariableName, Sprite sprite) {
-		UserVariable var;
-		var = findUserVariable(userVariableName, getOrCreateVariableListForSprite(sprite));
+		ensureIndexes();
+		UserVariable var = null;
+		Map<String, UserVariable> spriteIndex = spriteVariableIndex.get(sprite);
+		if (spriteIndex != null) {
+			var = spriteIndex.get(userVariableName);
+		}
 		if (var == null) {
-			var = findUserVariable(userVariableName, projectVariables);
+			var = projectVariableIndex.get(userVariableName);
 		}
 		return var;
 	}
@@ -69,31 +78,60 @@ public class UserVariablesContainer implements Serializable {
 	}
 
 	public UserVariable addSpriteUserVariableToSprite(Sprite sprite, String userVariableName) {
+		ensureIndexes();
 		UserVariable userVariableToAdd = new UserVariable(userVariableName);
 		List<UserVariable> varList = getOrCreateVariableListForSprite(sprite);
 		varList.add(userVariableToAdd);
+		userVariableToAdd.attachToValueStore(valueStore);
+		Map<String, UserVariable> spriteIndex = spriteVariableIndex.get(sprite);
+		if (spriteIndex == null) {
+			spriteIndex = new HashMap<String, UserVariable>();
+			spriteVariableIndex.put(sprite, spriteIndex);
+		}
+		putIfAbsent(spriteIndex, userVariableToAdd);
+		modificationCount++;
 		return userVariableToAdd;
 	}
 
 	public UserVariable addProjectUserVariable(String userVariableName) {
+		ensureIndexes();
 		UserVariable userVariableToAdd = new UserVariable(userVariableName);
 		projectVariables.add(userVariableToAdd);
+		userVariableToAdd.attachToValueStore(valueStore);
+		putIfAbsent(projectVariableIndex, userVariableToAdd);
+		modificationCount++;
 		return userVariableToAdd;
 	}
 
 	public void deleteUserVariableByName(String userVariableName) {
 		Sprite currentSprite = ProjectManager.getInstance().getCurrentSprite();
 		UserVariable variableToDelete;
-		List<UserVariable> spriteVariables = getOrCreateVariableListForSprite(currentSprite);
+		List<UserVariable> spriteVariables = this.spriteVariables.get(currentSprite);
 		variableToDelete = findUserVariable(userVariableName, spriteVariables);
 		if (variableToDelete != null) {
 			spriteVariables.remove(variableToDelete);
+			variableToDelete.detachFromValueStore();
 		}
 
 		variableToDelete = findUserVariable(userVariableName, projectVariables);
 		if (variableToDelete != null) {
 			projectVariables.remove(variableToDelete);
+			variableToDelete.detachFromValueStore();
 		}
+		rebuildIndexes();
+		modificationCount++;
+	}
+
+	public List<UserVariable> getProjectVariables() {
+		return Collections.unmodifiableList(projectVariables);
+	}
+
+	public List<UserVariable> getSpriteVariables(Sprite sprite) {
+		List<UserVariable> variables = spriteVariables.get(sprite);
+		if (variables == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(variables);
 	}
 
 	public List<UserVariable> getOrCreateVariableListForSprite(Sprite sprite) {
@@ -108,9 +146,21 @@ public class UserVariablesContainer implements Serializable {
 	public void cleanVariableListForSprite(Sprite sprite) {
 		List<UserVariable> vars = spriteVariables.get(sprite);
 		if (vars != null) {
+			for (UserVariable variable : vars) {
+				variable.detachFromValueStore();
+			}
 			vars.clear();
 		}
 		spriteVariables.remove(sprite);
+		rebuildIndexes();
+		modificationCount++;
+	}
+
+	/**
+	 * Incremented whenever a variable is added or deleted, so that resolved variable references can be rebound.
+	 */
+	public int getModificationCount() {
+		return modificationCount;
 	}
 
 	private UserVariable findUserVariable(String name, List<UserVariable> variables) {
@@ -126,19 +176,41 @@ public class UserVariablesContainer implements Serializable {
 	}
 
 	public void resetAllUserVariables() {
+		ensureIndexes();
+		valueStore.fill(0.0);
+	}
 
-		resetUserVariables(projectVariables);
+	private void ensureIndexes() {
+		// the transient indexes are missing after deserialization
+		if (valueStore == null) {
+			rebuildIndexes();
+		}
+	}
 
-		Iterator<Sprite> spriteIterator = spriteVariables.keySet().iterator();
-		while (spriteIterator.hasNext()) {
-			Sprite currentSprite = spriteIterator.next();
-			resetUserVariables(spriteVariables.get(currentSprite));
+	private void rebuildIndexes() {
+		valueStore = new UserVariableValueStore();
+		projectVariableIndex = createIndex(projectVariables);
+		spriteVariableIndex = new HashMap<Sprite, Map<String, UserVariable>>();
+		for (Map.Entry<Sprite, List<UserVariable>> entry : spriteVariables.entrySet()) {
+			spriteVariableIndex.put(entry.getKey(), createIndex(entry.getValue()));
+		}
+	}
+
+	private Map<String, UserVariable> createIndex(List<UserVariable> variables) {
+		Map<String, UserVariable> index = new HashMap<String, UserVariable>();
+		if (variables == null) {
+			return index;
+		}
+		for (UserVariable variable : variables) {
+			variable.attachToValueStore(valueStore);
+			putIfAbsent(index, variable);
 		}
+		return index;
 	}
 
-	private void resetUserVariables(List<UserVariable> userVariableList) {
-		for (UserVariable userVariable : userVariableList) {
-			userVariable.setValue(0.0);
+	private void putIfAbsent(Map<String, UserVariable> index, UserVariable variable) {
+		if (!index.containsKey(variable.getName())) {
+			index.put(variable.getName(), variable);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * One shader program for all looks. The brightness of a look is not a uniform but travels in the red channel of
+ * the vertex color, so looks with different brightness are drawn in the same batch. The other color channels are
+ * ignored, the alpha channel is the transparency of the look. The batch stores the red channel as a byte, the
+ * unchanged brightness 1 is the byte {@link #NEUTRAL_CHANNEL_VALUE}, so it is decoded exactly.
+ */
+public class BrightnessShader extends ShaderProgram {
+
+	public static final float MAXIMUM_BRIGHTNESS = 2f;
+	public static final int NEUTRAL_CHANNEL_VALUE = 127;
+	private static final float CHANNEL_VALUES = 255f;
+
+	private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" + "attribute vec2 "
+			+ ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" + "uniform mat4 u_projTrans;\n" + "varying vec4 v_color;\n"
+			+ "varying vec2 v_texCoords;\n" + "\n" + "void main()\n" + "{\n" + " v_color = "
+			+ ShaderProgram.COLOR_ATTRIBUTE + ";\n" + " v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+			+ " gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" + "}\n";
+	private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n" + "#define LOWP lowp\n"
+			+ "precision mediump float;\n" + "#else\n" + "#define LOWP \n" + "#endif\n"
+			+ "varying LOWP vec4 v_color;\n" + "varying vec2 v_texCoords;\n" + "uniform sampler2D u_texture;\n"
+			+ "void main()\n" + "{\n"
+			+ " float brightness = (v_color.r * " + CHANNEL_VALUES + " - " + NEUTRAL_CHANNEL_VALUE + ".0) / "
+			+ NEUTRAL_CHANNEL_VALUE + ".0;\n" //decode brightness
+			+ " vec4 color = vec4(1.0, 1.0, 1.0, v_color.a) * texture2D(u_texture, v_texCoords);\n"
+			+ " color.rgb /= color.a;\n" + " color.rgb += brightness;\n" //apply brightness
+			+ " color.rgb *= color.a;\n" + " gl_FragColor = color;\n" + "}";
+
+	public BrightnessShader() {
+		super(VERTEX_SHADER, FRAGMENT_SHADER);
+		ShaderProgram.pedantic = false;
+	}
+
+	/**
+	 * @param brightness
+	 *            between 0 and {@link #MAXIMUM_BRIGHTNESS}, 1 leaves the look unchanged
+	 * @return the value of the red color channel which makes this shader apply the given brightness. It lies in
+	 *         the middle of its byte, so the truncation to a byte by the batch keeps the byte.
+	 */
+	public static float encodeBrightness(float brightness) {
+		float clampedBrightness = Math.max(0f, Math.min(MAXIMUM_BRIGHTNESS, brightness));
+		int channelValue = Math.round(clampedBrightness * NEUTRAL_CHANNEL_VALUE);
+		return (channelValue + 0.5f) / CHANNEL_VALUES;
+	}
+
+	/**
+	 * Decodes a red channel byte like the fragment shader does.
+	 * 
+	 * @return the brightness drawn for the given byte of the red color channel
+	 */
+	public static float decodeBrightness(int channelValue) {
+		return (channelValue - NEUTRAL_CHANNEL_VALUE) / (float) NEUTRAL_CHANNEL_VALUE + 1f;
+	}
+
+	/**
+	 * Sets a batch color which draws textures unchanged, for actors which are not looks.
+	 */
+	public static void setNeutralColor(SpriteBatch batch, float alpha) {
+		float neutral = encodeBrightness(1f);
+		batch.setColor(neutral, neutral, neutral, alpha);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+/**
+ * Splits the frame time into ticks of a fixed length, so scripts advance by the same steps on every device. If
+ * a frame took so long that more than the maximum number of ticks would be due, the surplus is dropped instead
+ * of being caught up later.
+ */
+public final class FixedTimestepScheduler {
+
+	public static final int DEFAULT_MAXIMUM_TICKS_PER_FRAME = 5;
+	// frame times rounded to float must not lose a tick, e.g. 60 frames of 1/60f at 60 ticks per second
+	private static final double TICK_EPSILON = 1e-4;
+
+	private final int ticksPerSecond;
+	private final float tickDuration;
+	private final int maximumTicksPerFrame;
+
+	private double accumulator = 0.0;
+	private long tickCount = 0;
+	private long droppedTickCount = 0;
+
+	public FixedTimestepScheduler(int ticksPerSecond) {
+		this(ticksPerSecond, DEFAULT_MAXIMUM_TICKS_PER_FRAME);
+	}
+
+	public FixedTimestepScheduler(int ticksPerSecond, int maximumTicksPerFrame) {
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("ticksPerSecond must be positive, was " + ticksPerSecond);
+		}
+		if (maximumTicksPerFrame <= 0) {
+			throw new IllegalArgumentException("maximumTicksPerFrame must be positive, was " + maximumTicksPerFrame);
+		}
+		this.ticksPerSecond = ticksPerSecond;
+		this.tickDuration = 1f / ticksPerSecond;
+		this.maximumTicksPerFrame = maximumTicksPerFrame;
+	}
+
+	/**
+	 * Adds the elapsed frame time and returns how many ticks of {@link #getTickDuration()} have to be run now.
+	 */
+	public int advance(float deltaTime) {
+		if (deltaTime > 0f) {
+			accumulator += deltaTime;
+		}
+
+		long dueTicks = (long) (accumulator * ticksPerSecond + TICK_EPSILON);
+		accumulator -= (double) dueTicks / ticksPerSecond;
+
+		int ticks = (int) Math.min(dueTicks, maximumTicksPerFrame);
+		droppedTickCount += dueTicks - ticks;
+		tickCount += ticks;
+		return ticks;
+	}
+
+	public void reset() {
+		accumulator = 0.0;
+	}
+
+	public int getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	public float getTickDuration() {
+		return tickDuration;
+	}
+
+	public int getMaximumTicksPerFrame() {
+		return maximumTicksPerFrame;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public long getDroppedTickCount() {
+		return droppedTickCount;
+	}
+}
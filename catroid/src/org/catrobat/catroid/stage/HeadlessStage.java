@@ -0,0 +1,336 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.scenes.scene2d.Group;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.Look;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.FormulaOptimizer;
+import org.catrobat.catroid.formulaeditor.UserVariable;
+import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+import org.catrobat.catroid.io.StorageHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the scripts of a project without a GL context. The looks are acted on with a virtual clock of fixed ticks
+ * and never drawn, so no textures or shaders are created; changed looks only update the size of the sprite.
+ * Every visible change of a sprite, every changed variable and every broadcast is recorded in a trace. The project
+ * becomes the current project, so a headless stage must not run at the same time as another stage.
+ */
+public class HeadlessStage {
+
+	public static final int DEFAULT_TICKS_PER_SECOND = 60;
+
+	private final Project project;
+	private final List<Sprite> sprites;
+	private final Group root = new Group();
+	private final int ticksPerSecond;
+	private final float tickDuration;
+
+	private final List<TraceEvent> trace = new ArrayList<TraceEvent>();
+	private final Map<Sprite, SpriteState> spriteStates = new HashMap<Sprite, SpriteState>();
+	private final Map<UserVariable, Double> variableValues = new HashMap<UserVariable, Double>();
+	private final StageRuntime stageRuntime = new StageRuntime();
+	private final StageRuntime.BroadcastObserver broadcastTracer = new StageRuntime.BroadcastObserver() {
+		@Override
+		public void onBroadcast(BroadcastEvent event) {
+			String sender = event.getSenderSprite() == null ? "" : event.getSenderSprite().getName();
+			trace.add(new TraceEvent(tickCount, TraceEvent.Type.BROADCAST, sender, event.getBroadcastMessage()));
+		}
+	};
+
+	private long tickCount = 0;
+	private boolean started = false;
+
+	public HeadlessStage(Project project) {
+		this(project, DEFAULT_TICKS_PER_SECOND);
+	}
+
+	public HeadlessStage(Project project, int ticksPerSecond) {
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("ticksPerSecond must be positive, was " + ticksPerSecond);
+		}
+		this.project = project;
+		this.sprites = project.getSpriteList();
+		this.ticksPerSecond = ticksPerSecond;
+		this.tickDuration = 1f / ticksPerSecond;
+	}
+
+	public static HeadlessStage loadProject(String projectName, int ticksPerSecond) {
+		Project project = StorageHandler.getInstance().loadProject(projectName);
+		if (project == null) {
+			throw new IllegalArgumentException("Project " + projectName + " could not be loaded");
+		}
+		return new HeadlessStage(project, ticksPerSecond);
+	}
+
+	/**
+	 * Prepares the sprites like {@link StageListener} does and creates the action sequences of the start and
+	 * broadcast scripts. The project becomes the current project, since running actions look it up there.
+	 */
+	public void start() {
+		if (started) {
+			throw new IllegalStateException("The headless stage has already been started");
+		}
+		ProjectManager.getInstance().setProject(project);
+		stageRuntime.clear();
+		stageRuntime.setBroadcastObserver(broadcastTracer);
+
+		for (Sprite sprite : sprites) {
+			sprite.resetSprite();
+			sprite.look.setStageRuntime(stageRuntime);
+			root.addActor(sprite.look);
+			sprite.resume();
+		}
+		FormulaOptimizer.optimizeProject(project);
+
+		for (Sprite sprite : sprites) {
+			sprite.createStartScriptActionSequence();
+			if (!sprite.getLookDataList().isEmpty()) {
+				sprite.look.setLookData(sprite.getLookDataList().get(0));
+			}
+			sprite.look.checkImageChangedWithoutTextures();
+			spriteStates.put(sprite, new SpriteState(sprite.look));
+		}
+		for (UserVariable variable : getAllVariables()) {
+			variableValues.put(variable, variable.getValue());
+		}
+		started = true;
+	}
+
+	public void tick() {
+		if (!started) {
+			throw new IllegalStateException("The headless stage has not been started");
+		}
+		tickCount++;
+		stageRuntime.beginTick();
+		root.act(tickDuration);
+		for (Sprite sprite : sprites) {
+			sprite.look.checkImageChangedWithoutTextures();
+		}
+		traceChanges();
+	}
+
+	public void runTicks(int ticks) {
+		for (int tick = 0; tick < ticks; tick++) {
+			tick();
+		}
+	}
+
+	public void runFor(float seconds) {
+		runTicks(Math.round(seconds * ticksPerSecond));
+	}
+
+	/**
+	 * Ticks until all actions of all sprites are finished, but at most the given number of ticks.
+	 *
+	 * @return true if all actions have finished
+	 */
+	public boolean runUntilIdle(int maximumTicks) {
+		for (int tick = 0; tick < maximumTicks; tick++) {
+			tick();
+			if (areAllActionsFinished()) {
+				return true;
+			}
+		}
+		return areAllActionsFinished();
+	}
+
+	public void finish() {
+		stageRuntime.clear();
+		for (Sprite sprite : sprites) {
+			sprite.pause();
+			sprite.look.clearActions();
+		}
+		root.clear();
+		stageRuntime.setBroadcastObserver(null);
+		started = false;
+	}
+
+	public boolean areAllActionsFinished() {
+		for (Sprite sprite : sprites) {
+			if (!sprite.look.getAllActionsAreFinished()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public Sprite getSprite(String spriteName) {
+		for (Sprite sprite : sprites) {
+			if (sprite.getName().equals(spriteName)) {
+				return sprite;
+			}
+		}
+		throw new IllegalArgumentException("There is no sprite named " + spriteName);
+	}
+
+	public double getVariableValue(String variableName, Sprite sprite) {
+		UserVariable variable = project.getUserVariables().getUserVariable(variableName, sprite);
+		if (variable == null) {
+			throw new IllegalArgumentException("There is no variable named " + variableName);
+		}
+		return variable.getValue();
+	}
+
+	public List<TraceEvent> getTrace() {
+		return Collections.unmodifiableList(trace);
+	}
+
+	public void clearTrace() {
+		trace.clear();
+	}
+
+	public StageRuntime getStageRuntime() {
+		return stageRuntime;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public float getElapsedTime() {
+		return (float) tickCount / ticksPerSecond;
+	}
+
+	private void traceChanges() {
+		for (Sprite sprite : sprites) {
+			SpriteState previousState = spriteStates.get(sprite);
+			SpriteState state = new SpriteState(sprite.look);
+			if (previousState.x != state.x || previousState.y != state.y) {
+				addTraceEvent(TraceEvent.Type.MOVED, sprite, state.x + ", " + state.y);
+			}
+			if (previousState.direction != state.direction) {
+				addTraceEvent(TraceEvent.Type.TURNED, sprite, String.valueOf(state.direction));
+			}
+			if (previousState.size != state.size) {
+				addTraceEvent(TraceEvent.Type.RESIZED, sprite, String.valueOf(state.size));
+			}
+			if (previousState.lookData != state.lookData) {
+				addTraceEvent(TraceEvent.Type.LOOK_CHANGED, sprite,
+						state.lookData == null ? null : state.lookData.getLookName());
+			}
+			if (previousState.visible != state.visible || previousState.transparency != state.transparency
+					|| previousState.brightness != state.brightness) {
+				addTraceEvent(TraceEvent.Type.APPEARANCE_CHANGED, sprite, "visible=" + state.visible
+						+ " transparency=" + state.transparency + " brightness=" + state.brightness);
+			}
+			spriteStates.put(sprite, state);
+		}
+
+		for (UserVariable variable : getAllVariables()) {
+			Double previousValue = variableValues.get(variable);
+			Double value = variable.getValue();
+			if (!value.equals(previousValue)) {
+				trace.add(new TraceEvent(tickCount, TraceEvent.Type.VARIABLE_CHANGED, null, variable.getName() + "="
+						+ value));
+				variableValues.put(variable, value);
+			}
+		}
+	}
+
+	private List<UserVariable> getAllVariables() {
+		UserVariablesContainer userVariables = project.getUserVariables();
+		List<UserVariable> variables = new ArrayList<UserVariable>(userVariables.getProjectVariables());
+		for (Sprite sprite : sprites) {
+			variables.addAll(userVariables.getSpriteVariables(sprite));
+		}
+		return variables;
+	}
+
+	private void addTraceEvent(TraceEvent.Type type, Sprite sprite, String detail) {
+		trace.add(new TraceEvent(tickCount, type, sprite.getName(), detail));
+	}
+
+	private static class SpriteState {
+		private final float x;
+		private final float y;
+		private final float direction;
+		private final float size;
+		private final float transparency;
+		private final float brightness;
+		private final boolean visible;
+		private final LookData lookData;
+
+		public SpriteState(Look look) {
+			x = look.getXInUserInterfaceDimensionUnit();
+			y = look.getYInUserInterfaceDimensionUnit();
+			direction = look.getDirectionInUserInterfaceDimensionUnit();
+			size = look.getSizeInUserInterfaceDimensionUnit();
+			transparency = look.getTransparencyInUserInterfaceDimensionUnit();
+			brightness = look.getBrightnessInUserInterfaceDimensionUnit();
+			visible = look.visible;
+			lookData = look.getLookData();
+		}
+	}
+
+	public static final class TraceEvent {
+
+		public static enum Type {
+			MOVED, TURNED, RESIZED, LOOK_CHANGED, APPEARANCE_CHANGED, VARIABLE_CHANGED, BROADCAST
+		}
+
+		private final long tick;
+		private final Type type;
+		private final String spriteName;
+		private final String detail;
+
+		public TraceEvent(long tick, Type type, String spriteName, String detail) {
+			this.tick = tick;
+			this.type = type;
+			this.spriteName = spriteName;
+			this.detail = detail;
+		}
+
+		public long getTick() {
+			return tick;
+		}
+
+		public Type getType() {
+			return type;
+		}
+
+		public String getSpriteName() {
+			return spriteName;
+		}
+
+		public String getDetail() {
+			return detail;
+		}
+
+		@Override
+		public String toString() {
+			return tick + " " + type + (spriteName == null ? "" : " " + spriteName) + " " + detail;
+		}
+	}
+}
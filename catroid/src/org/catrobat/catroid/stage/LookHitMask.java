@@ -0,0 +1,103 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores one bit per pixel of a look image telling whether the pixel is opaque enough to be touched, so that the
+ * decoded pixmap does not have to be kept for touch detection. Rows are stored top down like in the pixmap.
+ */
+public final class LookHitMask {
+	public static final int ALPHA_THRESHOLD = 10;
+
+	private static final int BITS_PER_WORD = 64;
+	private static final int RGBA8888_BYTES_PER_PIXEL = 4;
+	private static final int RGBA8888_ALPHA_OFFSET = 3;
+
+	private final int width;
+	private final int height;
+	private final long[] bits;
+
+	private LookHitMask(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.bits = new long[(width * height + BITS_PER_WORD - 1) / BITS_PER_WORD];
+	}
+
+	public static LookHitMask create(Pixmap pixmap) {
+		LookHitMask hitMask = new LookHitMask(pixmap.getWidth(), pixmap.getHeight());
+		if (pixmap.getFormat() == Format.RGBA8888) {
+			hitMask.setFromRgba8888(pixmap.getPixels());
+		} else {
+			hitMask.setFromPixels(pixmap);
+		}
+		return hitMask;
+	}
+
+	private void setFromRgba8888(ByteBuffer pixels) {
+		for (int index = 0, pixelCount = width * height; index < pixelCount; index++) {
+			int alpha = pixels.get(index * RGBA8888_BYTES_PER_PIXEL + RGBA8888_ALPHA_OFFSET) & 0xFF;
+			if (alpha > ALPHA_THRESHOLD) {
+				set(index);
+			}
+		}
+	}
+
+	private void setFromPixels(Pixmap pixmap) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if ((pixmap.getPixel(x, y) & 0x000000FF) > ALPHA_THRESHOLD) {
+					set(y * width + x);
+				}
+			}
+		}
+	}
+
+	private void set(int index) {
+		bits[index / BITS_PER_WORD] |= 1L << (index % BITS_PER_WORD);
+	}
+
+	public boolean isOpaque(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return false;
+		}
+		int index = y * width + x;
+		return (bits[index / BITS_PER_WORD] & (1L << (index % BITS_PER_WORD))) != 0;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public long getSizeInBytes() {
+		return 8L * bits.length;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.content.Sprite;
+
+import java.io.File;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes the images of all looks of a project on background threads and puts them into the
+ * {@link LookTextureCache}, so that the stage can create its textures without touching the file system. Images
+ * which do not fit into the memory budget of the cache are decoded on demand. The listener is called on the main
+ * thread.
+ */
+public class LookPreloader {
+	private static final String TAG = LookPreloader.class.getSimpleName();
+	private static final int MAXIMUM_THREAD_COUNT = 2;
+
+	public interface OnLookPreloadListener {
+		void onLookPreloadProgress(int decodedImages, int totalImages);
+
+		void onLookPreloadFinished();
+	}
+
+	private final Set<String> imagePaths;
+	private final AtomicInteger decodedImages = new AtomicInteger();
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+	private ExecutorService executor;
+	private volatile boolean cancelled = false;
+
+	public LookPreloader(List<Sprite> sprites) {
+		imagePaths = new LinkedHashSet<String>();
+		for (Sprite sprite : sprites) {
+			for (LookData lookData : sprite.getLookDataList()) {
+				String path = lookData.getAbsolutePath();
+				if (path != null && !LookTextureCache.getInstance().contains(path)) {
+					imagePaths.add(path);
+				}
+			}
+		}
+	}
+
+	public int getTotalImageCount() {
+		return imagePaths.size();
+	}
+
+	public int getDecodedImageCount() {
+		return decodedImages.get();
+	}
+
+	public void start(final OnLookPreloadListener listener) {
+		if (executor != null) {
+			throw new IllegalStateException("Look preloader has already been started");
+		}
+		if (imagePaths.isEmpty()) {
+			listener.onLookPreloadFinished();
+			return;
+		}
+		GdxNativesLoader.load();
+
+		int threadCount = Math.min(MAXIMUM_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+		executor = Executors.newFixedThreadPool(Math.max(1, threadCount));
+		for (final String path : imagePaths) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					decode(path, listener);
+				}
+			});
+		}
+		executor.shutdown();
+	}
+
+	public void cancel() {
+		cancelled = true;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void decode(String path, final OnLookPreloadListener listener) {
+		if (cancelled) {
+			return;
+		}
+		// images which fail to decode are not cached, so the stage decodes them again on demand
+		try {
+			Pixmap pixmap = new Pixmap(new FileHandle(new File(path)));
+			LookTextureCache.getInstance().putPixmap(path, pixmap);
+		} catch (RuntimeException runtimeException) {
+			Log.e(TAG, Log.getStackTraceString(runtimeException));
+		} catch (OutOfMemoryError outOfMemoryError) {
+			Log.e(TAG, Log.getStackTraceString(outOfMemoryError));
+		} finally {
+			countDecodedImage(listener);
+		}
+	}
+
+	private void countDecodedImage(final OnLookPreloadListener listener) {
+		final int decoded = decodedImages.incrementAndGet();
+		final int total = imagePaths.size();
+		mainHandler.post(new Runnable() {
+			@Override
+			public void run() {
+				if (cancelled) {
+					return;
+				}
+				listener.onLookPreloadProgress(decoded, total);
+				if (decoded == total) {
+					listener.onLookPreloadFinished();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,278 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.math.Vector2;
+
+import org.catrobat.catroid.content.Look;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the axis aligned bounds of the looks on the stage. Looks report changes of their position,
+ * size, scale, rotation and origin, and the index moves them between cells lazily on the next query. Looks
+ * covering more than {@link #MAXIMUM_CELLS_PER_LOOK} cells are kept in a separate list which every query checks.
+ * Queries return the looks from the topmost to the bottommost one.
+ */
+public class LookSpatialIndex {
+	public static final float DEFAULT_CELL_SIZE = 128f;
+	public static final int MAXIMUM_CELLS_PER_LOOK = 64;
+
+	private static final Comparator<Look> TOP_FIRST = new Comparator<Look>() {
+		@Override
+		public int compare(Look first, Look second) {
+			return second.getZIndex() - first.getZIndex();
+		}
+	};
+
+	private static final class Bounds {
+		private float minX;
+		private float minY;
+		private float maxX;
+		private float maxY;
+		private int minCellX;
+		private int minCellY;
+		private int maxCellX;
+		private int maxCellY;
+		private boolean inCells = false;
+		private boolean oversized = false;
+		private boolean dirty = false;
+	}
+
+	private final float cellSize;
+	private final Map<Long, List<Look>> cells = new HashMap<Long, List<Look>>();
+	private final List<Look> oversizedLooks = new ArrayList<Look>();
+	private final Map<Look, Bounds> boundsByLook = new HashMap<Look, Bounds>();
+	private final List<Look> dirtyLooks = new ArrayList<Look>();
+	private final Vector2 corner = new Vector2();
+
+	public LookSpatialIndex() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	public LookSpatialIndex(float cellSize) {
+		if (cellSize <= 0f) {
+			throw new IllegalArgumentException("Cell size must be positive");
+		}
+		this.cellSize = cellSize;
+	}
+
+	public void add(Look look) {
+		if (boundsByLook.containsKey(look)) {
+			return;
+		}
+		boundsByLook.put(look, new Bounds());
+		look.setSpatialIndex(this);
+		markDirty(look);
+	}
+
+	public void remove(Look look) {
+		Bounds bounds = boundsByLook.remove(look);
+		if (bounds == null) {
+			return;
+		}
+		removeFromCells(look, bounds);
+		if (bounds.dirty) {
+			dirtyLooks.remove(look);
+		}
+		look.setSpatialIndex(null);
+	}
+
+	public void clear() {
+		for (Look look : boundsByLook.keySet()) {
+			look.setSpatialIndex(null);
+		}
+		boundsByLook.clear();
+		cells.clear();
+		oversizedLooks.clear();
+		dirtyLooks.clear();
+	}
+
+	public int size() {
+		return boundsByLook.size();
+	}
+
+	/**
+	 * Called by a look whenever its bounds on the stage may have changed.
+	 */
+	public void markDirty(Look look) {
+		Bounds bounds = boundsByLook.get(look);
+		if (bounds != null && !bounds.dirty) {
+			bounds.dirty = true;
+			dirtyLooks.add(look);
+		}
+	}
+
+	/**
+	 * Adds all looks whose bounds contain the given stage coordinates to the result, topmost look first.
+	 */
+	public void getLooksAt(float x, float y, List<Look> result) {
+		getLooksIntersecting(x, y, x, y, result);
+	}
+
+	public List<Look> getLooksAt(float x, float y) {
+		List<Look> result = new ArrayList<Look>();
+		getLooksAt(x, y, result);
+		return result;
+	}
+
+	/**
+	 * Adds all looks whose bounds intersect the given rectangle in stage coordinates to the result, topmost look
+	 * first.
+	 */
+	public void getLooksIntersecting(float minX, float minY, float maxX, float maxY, List<Look> result) {
+		update();
+		int firstResult = result.size();
+		int minCellX = toCell(minX);
+		int minCellY = toCell(minY);
+		int maxCellX = toCell(maxX);
+		int maxCellY = toCell(maxY);
+		boolean singleCell = minCellX == maxCellX && minCellY == maxCellY;
+
+		for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+			for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+				List<Look> cellLooks = cells.get(toKey(cellX, cellY));
+				if (cellLooks == null) {
+					continue;
+				}
+				for (int index = 0, size = cellLooks.size(); index < size; index++) {
+					Look look = cellLooks.get(index);
+					if (intersects(boundsByLook.get(look), minX, minY, maxX, maxY)
+							&& (singleCell || !result.subList(firstResult, result.size()).contains(look))) {
+						result.add(look);
+					}
+				}
+			}
+		}
+		for (int index = 0, size = oversizedLooks.size(); index < size; index++) {
+			Look look = oversizedLooks.get(index);
+			if (intersects(boundsByLook.get(look), minX, minY, maxX, maxY)) {
+				result.add(look);
+			}
+		}
+		Collections.sort(result.subList(firstResult, result.size()), TOP_FIRST);
+	}
+
+	private void update() {
+		for (int index = 0, size = dirtyLooks.size(); index < size; index++) {
+			Look look = dirtyLooks.get(index);
+			Bounds bounds = boundsByLook.get(look);
+			bounds.dirty = false;
+			updateBounds(look, bounds);
+		}
+		dirtyLooks.clear();
+	}
+
+	private void updateBounds(Look look, Bounds bounds) {
+		bounds.minX = Float.POSITIVE_INFINITY;
+		bounds.minY = Float.POSITIVE_INFINITY;
+		bounds.maxX = Float.NEGATIVE_INFINITY;
+		bounds.maxY = Float.NEGATIVE_INFINITY;
+		includeCorner(look, bounds, 0f, 0f);
+		includeCorner(look, bounds, look.getWidth(), 0f);
+		includeCorner(look, bounds, 0f, look.getHeight());
+		includeCorner(look, bounds, look.getWidth(), look.getHeight());
+
+		int minCellX = toCell(bounds.minX);
+		int minCellY = toCell(bounds.minY);
+		int maxCellX = toCell(bounds.maxX);
+		int maxCellY = toCell(bounds.maxY);
+		boolean oversized = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > MAXIMUM_CELLS_PER_LOOK;
+
+		if (bounds.oversized && oversized) {
+			return;
+		}
+		if (bounds.inCells && !oversized && minCellX == bounds.minCellX && minCellY == bounds.minCellY
+				&& maxCellX == bounds.maxCellX && maxCellY == bounds.maxCellY) {
+			return;
+		}
+		removeFromCells(look, bounds);
+		if (oversized) {
+			oversizedLooks.add(look);
+			bounds.oversized = true;
+			return;
+		}
+		bounds.minCellX = minCellX;
+		bounds.minCellY = minCellY;
+		bounds.maxCellX = maxCellX;
+		bounds.maxCellY = maxCellY;
+		for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+			for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+				Long key = toKey(cellX, cellY);
+				List<Look> cellLooks = cells.get(key);
+				if (cellLooks == null) {
+					cellLooks = new ArrayList<Look>();
+					cells.put(key, cellLooks);
+				}
+				cellLooks.add(look);
+			}
+		}
+		bounds.inCells = true;
+	}
+
+	private void includeCorner(Look look, Bounds bounds, float x, float y) {
+		look.localToParentCoordinates(corner.set(x, y));
+		bounds.minX = Math.min(bounds.minX, corner.x);
+		bounds.minY = Math.min(bounds.minY, corner.y);
+		bounds.maxX = Math.max(bounds.maxX, corner.x);
+		bounds.maxY = Math.max(bounds.maxY, corner.y);
+	}
+
+	private void removeFromCells(Look look, Bounds bounds) {
+		if (bounds.oversized) {
+			oversizedLooks.remove(look);
+			bounds.oversized = false;
+		}
+		if (!bounds.inCells) {
+			return;
+		}
+		for (int cellX = bounds.minCellX; cellX <= bounds.maxCellX; cellX++) {
+			for (int cellY = bounds.minCellY; cellY <= bounds.maxCellY; cellY++) {
+				Long key = toKey(cellX, cellY);
+				List<Look> cellLooks = cells.get(key);
+				cellLooks.remove(look);
+				if (cellLooks.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+		bounds.inCells = false;
+	}
+
+	private static boolean intersects(Bounds bounds, float minX, float minY, float maxX, float maxY) {
+		return bounds.minX <= maxX && bounds.maxX >= minX && bounds.minY <= maxY && bounds.maxY >= minY;
+	}
+
+	private int toCell(float coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	private static Long toKey(int cellX, int cellY) {
+		return Long.valueOf(((long) cellX << 32) | (cellY & 0xFFFFFFFFL));
+	}
+}
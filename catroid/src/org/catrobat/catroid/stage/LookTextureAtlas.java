@@ -0,0 +1,188 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import android.util.Log;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.content.Sprite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs the looks of all sprites into a few shared atlas pages, so drawing sprites with different looks does not
+ * switch textures. Looks which do not fit on a page keep their own texture. Identical image files, which are
+ * shared between looks through their checksum file name, are packed once.
+ * <p>
+ * The pages are reserved in the memory budget of the {@link LookTextureCache}. When no further page fits into the
+ * budget, packing stops and the remaining looks keep their own texture.
+ */
+public final class LookTextureAtlas implements Disposable {
+	private static final String TAG = LookTextureAtlas.class.getSimpleName();
+
+	public static final int MAXIMUM_PAGE_SIZE = 2048;
+	public static final int PADDING = 2;
+	private static final int BYTES_PER_TEXEL = 4;
+
+	private final TextureAtlas atlas;
+	private final int pageCount;
+	private final List<LookData> packedLooks;
+	private final int standaloneLookCount;
+	private long reservedBytes;
+
+	private LookTextureAtlas(TextureAtlas atlas, int pageCount, List<LookData> packedLooks,
+			int standaloneLookCount, long reservedBytes) {
+		this.atlas = atlas;
+		this.pageCount = pageCount;
+		this.packedLooks = packedLooks;
+		this.standaloneLookCount = standaloneLookCount;
+		this.reservedBytes = reservedBytes;
+	}
+
+	/**
+	 * Decodes the looks of the sprites, packs them and hands the atlas regions to the looks. Has to be called on
+	 * the GL thread.
+	 */
+	public static LookTextureAtlas create(List<Sprite> sprites, int maximumTextureSize) {
+		int pageSize = getPageSize(maximumTextureSize);
+		PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Format.RGBA8888, PADDING, false);
+		List<LookData> packedLooks = new ArrayList<LookData>();
+		int standaloneLookCount = 0;
+		LookTextureCache lookTextureCache = LookTextureCache.getInstance();
+		long pageBytes = getPageBytes(pageSize);
+		boolean packing = lookTextureCache.reserveBytes(pageBytes);
+		int reservedPageCount = packing ? 1 : 0;
+
+		for (Sprite sprite : sprites) {
+			for (LookData lookData : sprite.getLookDataList()) {
+				String regionName = lookData.getAbsolutePath();
+				if (regionName == null) {
+					continue;
+				}
+				if (packer.getRect(regionName) != null) {
+					packedLooks.add(lookData);
+					continue;
+				}
+				if (!packing) {
+					standaloneLookCount++;
+					continue;
+				}
+				Pixmap pixmap = lookData.getPixmap();
+				if (!fitsOnPage(pixmap.getWidth(), pixmap.getHeight(), pageSize)) {
+					standaloneLookCount++;
+					continue;
+				}
+				try {
+					packer.pack(regionName, pixmap);
+				} catch (GdxRuntimeException gdxRuntimeException) {
+					Log.e(TAG, Log.getStackTraceString(gdxRuntimeException));
+					standaloneLookCount++;
+					continue;
+				}
+				if (packer.getPages().size > reservedPageCount) {
+					if (!lookTextureCache.reserveBytes(pageBytes)) {
+						// the new page only holds this look, so dropping it unpacks the look
+						packer.getPages().pop().getPixmap().dispose();
+						packing = false;
+						standaloneLookCount++;
+						continue;
+					}
+					reservedPageCount++;
+				}
+				packedLooks.add(lookData);
+				lookTextureCache.releasePixmap(regionName);
+			}
+		}
+
+		// the page textures of the atlas own the page pixmaps, so the packer is only disposed if it has no atlas
+		if (packedLooks.isEmpty()) {
+			packer.dispose();
+			lookTextureCache.releaseReservedBytes(reservedPageCount * pageBytes);
+			return new LookTextureAtlas(new TextureAtlas(), 0, packedLooks, standaloneLookCount, 0);
+		}
+		TextureAtlas atlas = packer.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest, false);
+		for (LookData lookData : packedLooks) {
+			TextureRegion region = atlas.findRegion(lookData.getAbsolutePath());
+			lookData.setAtlasRegion(region);
+		}
+		return new LookTextureAtlas(atlas, reservedPageCount, packedLooks, standaloneLookCount,
+				reservedPageCount * pageBytes);
+	}
+
+	/**
+	 * @return the largest power of two which is at most {@link #MAXIMUM_PAGE_SIZE} and the given maximum texture
+	 *         size
+	 */
+	public static int getPageSize(int maximumTextureSize) {
+		int limit = Math.min(MAXIMUM_PAGE_SIZE, maximumTextureSize);
+		int pageSize = 1;
+		while (pageSize * 2 <= limit) {
+			pageSize *= 2;
+		}
+		return pageSize;
+	}
+
+	/**
+	 * @return the memory of a page, which is kept as pixmap and as texture
+	 */
+	public static long getPageBytes(int pageSize) {
+		return 2L * BYTES_PER_TEXEL * pageSize * pageSize;
+	}
+
+	public static boolean fitsOnPage(int width, int height, int pageSize) {
+		return width + 2 * PADDING <= pageSize && height + 2 * PADDING <= pageSize;
+	}
+
+	public int getPageCount() {
+		return pageCount;
+	}
+
+	public int getPackedLookCount() {
+		return packedLooks.size();
+	}
+
+	public int getStandaloneLookCount() {
+		return standaloneLookCount;
+	}
+
+	@Override
+	public void dispose() {
+		for (LookData lookData : packedLooks) {
+			lookData.setAtlasRegion(null);
+		}
+		packedLooks.clear();
+		atlas.dispose();
+		LookTextureCache.getInstance().releaseReservedBytes(reservedBytes);
+		reservedBytes = 0;
+	}
+}
@@ -0,0 +1,329 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import org.catrobat.catroid.content.Sprite;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the decoded pixmaps and textures of look images, keyed by the absolute image path, within a memory budget.
+ * When the budget is exceeded the least recently used images which are not shown by any look are disposed; they
+ * are decoded again the next time they are needed. Textures must only be requested on the GL thread.
+ * <p>
+ * The hit mask of an image is created when it is decoded and is kept until {@link #clear()}, so the pixmap is
+ * disposed as soon as its texture has been created.
+ * <p>
+ * Memory which is kept by others on behalf of the looks, like the pages of the {@link LookTextureAtlas}, is reserved
+ * and counts against the same budget.
+ */
+public final class LookTextureCache {
+	public static final long MINIMUM_MEMORY_BUDGET = 16L * 1024 * 1024;
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+	private static final int BYTES_PER_TEXEL = 4;
+	private static final long BYTES_PER_MEGABYTE = 1024L * 1024;
+
+	private static final LookTextureCache INSTANCE = new LookTextureCache();
+
+	private static final class Entry {
+		private Pixmap pixmap;
+		private TextureRegion region;
+		private long pixmapBytes;
+		private long textureBytes;
+
+		private long getBytes() {
+			return pixmapBytes + textureBytes;
+		}
+	}
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private final Map<String, LookHitMask> hitMasks = new HashMap<String, LookHitMask>();
+	private List<Sprite> sprites = Collections.emptyList();
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private long residentBytes = 0;
+	private long reservedBytes = 0;
+	private int hitCount = 0;
+	private int missCount = 0;
+	private int evictionCount = 0;
+
+	private LookTextureCache() {
+	}
+
+	public static LookTextureCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return half of the memory class of the device, but at least {@link #MINIMUM_MEMORY_BUDGET}
+	 */
+	public static long getDefaultMemoryBudget(Context context) {
+		ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+		if (activityManager == null) {
+			return DEFAULT_MEMORY_BUDGET;
+		}
+		return Math.max(MINIMUM_MEMORY_BUDGET, activityManager.getMemoryClass() * BYTES_PER_MEGABYTE / 2);
+	}
+
+	public synchronized void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	public synchronized long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Images shown by the looks of these sprites are never evicted.
+	 */
+	public synchronized void setSprites(List<Sprite> sprites) {
+		this.sprites = sprites == null ? Collections.<Sprite> emptyList() : sprites;
+	}
+
+	/**
+	 * Adds a pixmap which has been decoded in advance. Does not evict anything, so the pixmap is disposed and
+	 * rejected if it does not fit into the budget. May be called from any thread.
+	 * 
+	 * @return whether the pixmap has been added
+	 */
+	public boolean putPixmap(String path, Pixmap pixmap) {
+		LookHitMask hitMask = LookHitMask.create(pixmap);
+		synchronized (this) {
+			if (!hitMasks.containsKey(path)) {
+				hitMasks.put(path, hitMask);
+			}
+			return putPixmapIfItFits(path, pixmap);
+		}
+	}
+
+	private boolean putPixmapIfItFits(String path, Pixmap pixmap) {
+		long pixmapBytes = getPixmapBytes(pixmap);
+		if (entries.containsKey(path) || residentBytes + pixmapBytes > memoryBudget) {
+			pixmap.dispose();
+			return false;
+		}
+		Entry entry = new Entry();
+		entry.pixmap = pixmap;
+		entry.pixmapBytes = pixmapBytes;
+		entries.put(path, entry);
+		residentBytes += pixmapBytes;
+		return true;
+	}
+
+	public synchronized Pixmap getPixmap(String path) {
+		Entry entry = entries.get(path);
+		if (entry != null && entry.pixmap != null) {
+			hitCount++;
+			return entry.pixmap;
+		}
+		missCount++;
+		entry = loadPixmap(path, entry);
+		trimToBudget(path, 0);
+		return entry.pixmap;
+	}
+
+	public synchronized TextureRegion getTextureRegion(String path) {
+		Entry entry = entries.get(path);
+		if (entry != null && entry.region != null) {
+			hitCount++;
+			return entry.region;
+		}
+		missCount++;
+		if (entry == null || entry.pixmap == null) {
+			entry = loadPixmap(path, entry);
+		}
+		entry.region = new TextureRegion(new Texture(entry.pixmap));
+		entry.textureBytes = (long) BYTES_PER_TEXEL * entry.pixmap.getWidth() * entry.pixmap.getHeight();
+		residentBytes += entry.textureBytes;
+		releasePixmap(entry);
+		trimToBudget(path, 0);
+		return entry.region;
+	}
+
+	public synchronized LookHitMask getHitMask(String path) {
+		LookHitMask hitMask = hitMasks.get(path);
+		if (hitMask == null) {
+			getPixmap(path);
+			hitMask = hitMasks.get(path);
+		}
+		return hitMask;
+	}
+
+	/**
+	 * Disposes the pixmap of an image which is not needed anymore, e.g. because it has been copied into a texture
+	 * atlas. The hit mask and the texture of the image are kept.
+	 */
+	public synchronized void releasePixmap(String path) {
+		Entry entry = entries.get(path);
+		if (entry != null) {
+			releasePixmap(entry);
+		}
+	}
+
+	/**
+	 * Reserves memory which is not kept by this cache. Images which are not shown are evicted to make room.
+	 * 
+	 * @return whether the bytes fit into the budget, nothing is reserved otherwise
+	 */
+	public synchronized boolean reserveBytes(long bytes) {
+		trimToBudget(null, bytes);
+		if (residentBytes + bytes > memoryBudget) {
+			return false;
+		}
+		reservedBytes += bytes;
+		residentBytes += bytes;
+		return true;
+	}
+
+	public synchronized void releaseReservedBytes(long bytes) {
+		reservedBytes -= bytes;
+		residentBytes -= bytes;
+	}
+
+	public synchronized boolean contains(String path) {
+		return entries.containsKey(path);
+	}
+
+	/**
+	 * Disposes all cached pixmaps and textures. Reserved memory stays reserved. Has to be called on the GL thread if
+	 * textures have been created.
+	 */
+	public synchronized void clear() {
+		for (Entry entry : entries.values()) {
+			dispose(entry);
+		}
+		entries.clear();
+		hitMasks.clear();
+		residentBytes = reservedBytes;
+	}
+
+	public synchronized void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+	/**
+	 * @return the memory of the cached images and the reserved memory
+	 */
+	public synchronized long getResidentBytes() {
+		return residentBytes;
+	}
+
+	public synchronized long getReservedBytes() {
+		return reservedBytes;
+	}
+
+	public synchronized long getTextureBytes() {
+		long textureBytes = 0;
+		for (Entry entry : entries.values()) {
+			textureBytes += entry.textureBytes;
+		}
+		return textureBytes;
+	}
+
+	public synchronized int getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized int getMissCount() {
+		return missCount;
+	}
+
+	public synchronized int getEvictionCount() {
+		return evictionCount;
+	}
+
+	private Entry loadPixmap(String path, Entry entry) {
+		if (entry == null) {
+			entry = new Entry();
+			entries.put(path, entry);
+		}
+		entry.pixmap = new Pixmap(new FileHandle(new File(path)));
+		entry.pixmapBytes = getPixmapBytes(entry.pixmap);
+		residentBytes += entry.pixmapBytes;
+		if (!hitMasks.containsKey(path)) {
+			hitMasks.put(path, LookHitMask.create(entry.pixmap));
+		}
+		return entry;
+	}
+
+	private void releasePixmap(Entry entry) {
+		if (entry.pixmap != null) {
+			entry.pixmap.dispose();
+			entry.pixmap = null;
+			residentBytes -= entry.pixmapBytes;
+			entry.pixmapBytes = 0;
+		}
+	}
+
+	private void trimToBudget(String requestedPath, long additionalBytes) {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (residentBytes + additionalBytes > memoryBudget && iterator.hasNext()) {
+			Map.Entry<String, Entry> candidate = iterator.next();
+			String path = candidate.getKey();
+			if (path.equals(requestedPath) || isShown(path)) {
+				continue;
+			}
+			dispose(candidate.getValue());
+			residentBytes -= candidate.getValue().getBytes();
+			iterator.remove();
+			evictionCount++;
+		}
+	}
+
+	private boolean isShown(String path) {
+		for (int index = 0, size = sprites.size(); index < size; index++) {
+			if (sprites.get(index).look.usesImage(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void dispose(Entry entry) {
+		if (entry.region != null) {
+			entry.region.getTexture().dispose();
+		}
+		if (entry.pixmap != null) {
+			entry.pixmap.dispose();
+		}
+	}
+
+	private static long getPixmapBytes(Pixmap pixmap) {
+		return pixmap.getPixels().capacity();
+	}
+}
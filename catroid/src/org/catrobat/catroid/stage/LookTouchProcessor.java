@@ -0,0 +1,82 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+
+import org.catrobat.catroid.content.Look;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dispatches touches to the looks under the touch point, found through the {@link LookSpatialIndex} instead of
+ * walking all actors of the stage. Touches on the passepartout outside the virtual screen are ignored.
+ */
+public class LookTouchProcessor extends InputAdapter {
+	private final Stage stage;
+	private final LookSpatialIndex spatialIndex;
+	private final float virtualWidthHalf;
+	private final float virtualHeightHalf;
+	private final Vector2 point = new Vector2();
+	private final List<Look> candidates = new ArrayList<Look>();
+
+	public LookTouchProcessor(Stage stage, LookSpatialIndex spatialIndex, float virtualWidth, float virtualHeight) {
+		this.stage = stage;
+		this.spatialIndex = spatialIndex;
+		this.virtualWidthHalf = virtualWidth / 2f;
+		this.virtualHeightHalf = virtualHeight / 2f;
+	}
+
+	@Override
+	public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+		stage.screenToStageCoordinates(point.set(screenX, screenY));
+		return touchDownOnStage(point.x, point.y, pointer);
+	}
+
+	/**
+	 * @return whether a look has handled the touch at the given stage coordinates
+	 */
+	public boolean touchDownOnStage(float stageX, float stageY, int pointer) {
+		if (stageX < -virtualWidthHalf || stageX > virtualWidthHalf || stageY < -virtualHeightHalf
+				|| stageY > virtualHeightHalf) {
+			return false;
+		}
+		candidates.clear();
+		spatialIndex.getLooksAt(stageX, stageY, candidates);
+		for (int index = 0, size = candidates.size(); index < size; index++) {
+			Look look = candidates.get(index);
+			if (!look.isVisible() || look.getTouchable() == Touchable.disabled) {
+				continue;
+			}
+			look.parentToLocalCoordinates(point.set(stageX, stageY));
+			if (look.doTouchDown(point.x, point.y, pointer)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
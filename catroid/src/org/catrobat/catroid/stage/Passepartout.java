@@ -55,6 +55,7 @@ public class Passepartout extends Actor {
 
 	@Override
 	public void draw(SpriteBatch batch, float parentAlpha) {
+		BrightnessShader.setNeutralColor(batch, 1f);
 		if (Float.compare(passepartoutWidth, 0f) != 0) {
 			batch.draw(texture, -virtualScreenWidth / 2f, -virtualScreenHeight / 2f, -passepartoutWidth,
 					virtualScreenHeight);
@@ -47,6 +47,8 @@ import android.speech.tts.TextToSpeech.OnInitListener;
 import android.speech.tts.TextToSpeech.OnUtteranceCompletedListener;
 import android.support.v4.content.LocalBroadcastManager;
 import android.util.Log;
+import android.view.View;
+import android.widget.ProgressBar;
 import android.widget.Toast;
 
 import com.parrot.freeflight.receivers.DroneAvailabilityDelegate;
@@ -72,6 +74,7 @@ import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.content.bricks.Brick;
 import org.catrobat.catroid.legonxt.LegoNXT;
 import org.catrobat.catroid.legonxt.LegoNXTBtCommunicator;
+import org.catrobat.catroid.stage.LookPreloader.OnLookPreloadListener;
 import org.catrobat.catroid.ui.BaseActivity;
 import org.catrobat.catroid.ui.SettingsActivity;
 import org.catrobat.catroid.ui.dialogs.CustomAlertDialogBuilder;
@@ -113,6 +116,7 @@ public class PreStageActivity extends BaseActivity implements DroneReadyReceiver
 	private DroneConnectionChangedReceiver droneConnectionChangeReceiver;
 
 	private Intent returnToActivityIntent = null;
+	private LookPreloader lookPreloader;
 
 	@Override
 	public void onCreate(Bundle savedInstanceState) {
@@ -128,6 +132,12 @@ public class PreStageActivity extends BaseActivity implements DroneReadyReceiver
 		int requiredResources = getRequiredRessources();
 		requiredResourceCounter = Integer.bitCount(requiredResources);
 
+		LookTextureCache.getInstance().setMemoryBudget(LookTextureCache.getDefaultMemoryBudget(this));
+		lookPreloader = new LookPreloader(ProjectManager.getInstance().getCurrentProject().getSpriteList());
+		if (lookPreloader.getTotalImageCount() > 0) {
+			requiredResourceCounter++;
+		}
+
 		if ((requiredResources & Brick.TEXT_TO_SPEECH) > 0) {
 			Intent checkIntent = new Intent();
 			checkIntent.setAction(TextToSpeech.Engine.ACTION_CHECK_TTS_DATA);
@@ -163,11 +173,34 @@ public class PreStageActivity extends BaseActivity implements DroneReadyReceiver
 			}
 		}
 
+		if (lookPreloader.getTotalImageCount() > 0) {
+			startLookPreloading();
+		}
+
 		if (requiredResourceCounter == Brick.NO_RESOURCES) {
 			startStage();
 		}
 	}
 
+	private void startLookPreloading() {
+		final ProgressBar progressBar = (ProgressBar) findViewById(R.id.prestage_look_preload_progress);
+		progressBar.setMax(lookPreloader.getTotalImageCount());
+		progressBar.setVisibility(View.VISIBLE);
+		findViewById(R.id.prestage_look_preload_text).setVisibility(View.VISIBLE);
+
+		lookPreloader.start(new OnLookPreloadListener() {
+			@Override
+			public void onLookPreloadProgress(int decodedImages, int totalImages) {
+				progressBar.setProgress(decodedImages);
+			}
+
+			@Override
+			public void onLookPreloadFinished() {
+				resourceInitialized();
+			}
+		});
+	}
+
 	public void initialiseDrone() {
 		if (!BuildConfig.DEBUG) {
 			Log.d(TAG, "drone is not available in release build");
@@ -269,6 +302,9 @@ public class PreStageActivity extends BaseActivity implements DroneReadyReceiver
 
 	@Override
 	protected void onDestroy() {
+		if (lookPreloader != null) {
+			lookPreloader.cancel();
+		}
 		if (droneControlService != null) {
 			unbindService(this.droneServiceConnection);
 		}
@@ -33,6 +33,8 @@ import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.R;
 import org.catrobat.catroid.common.ScreenValues;
 import org.catrobat.catroid.formulaeditor.SensorHandler;
+import org.catrobat.catroid.formulaeditor.SensorPolicy;
+import org.catrobat.catroid.ui.SettingsActivity;
 import org.catrobat.catroid.ui.dialogs.StageDialog;
 
 public class StageActivity extends AndroidApplication {
@@ -42,6 +44,7 @@ public class StageActivity extends AndroidApplication {
 	private StageDialog stageDialog;
 
 	private DroneConnection droneStageListener = null;
+	private SensorPolicy sensorPolicy;
 
 	public static final int STAGE_ACTIVITY_FINISH = 7777;
 
@@ -53,7 +56,10 @@ public class StageActivity extends AndroidApplication {
 
 		droneStageListener = new DroneConnection(this, getIntent());
 		stageListener = new StageListener();
+		stageListener.setFixedTickRate(SettingsActivity.getStageTickRate(this));
 		stageDialog = new StageDialog(this, stageListener, R.style.stage_dialog);
+		sensorPolicy = SensorPolicy.createForProject(ProjectManager.getInstance().getCurrentProject());
+		sensorPolicy.setLowPassFilterFactor(SettingsActivity.getSensorLowPassFilterFactor(this));
 		calculateScreenSizes();
 
 		initialize(stageListener, true);
@@ -84,7 +90,7 @@ public class StageActivity extends AndroidApplication {
 
 	@Override
 	public void onResume() {
-		SensorHandler.startSensorListener(this);
+		SensorHandler.startSensorListener(this, sensorPolicy);
 		super.onResume();
 
 		droneStageListener.start();
@@ -97,7 +103,7 @@ public class StageActivity extends AndroidApplication {
 
 	public void resume() {
 		stageListener.menuResume();
-		SensorHandler.startSensorListener(this);
+		SensorHandler.startSensorListener(this, sensorPolicy);
 	}
 
 	public boolean getResizePossible() {
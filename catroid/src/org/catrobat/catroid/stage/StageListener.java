@@ -25,6 +25,7 @@ package org.catrobat.catroid.stage;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
+import android.os.Debug;
 import android.os.SystemClock;
 
 import com.badlogic.gdx.ApplicationListener;
@@ -42,6 +43,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.TextBounds;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
 
 import org.catrobat.catroid.ProjectManager;
@@ -51,6 +53,8 @@ import org.catrobat.catroid.common.ScreenModes;
 import org.catrobat.catroid.common.ScreenValues;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.FormulaOptimizer;
+import org.catrobat.catroid.formulaeditor.SensorHandler;
 import org.catrobat.catroid.io.SoundManager;
 import org.catrobat.catroid.ui.dialogs.StageDialog;
 import org.catrobat.catroid.utils.Utils;
@@ -58,7 +62,10 @@ import org.catrobat.catroid.utils.Utils;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.IntBuffer;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 
 public class StageListener implements ApplicationListener {
 
@@ -66,12 +73,21 @@ public class StageListener implements ApplicationListener {
 	private static final float DELTA_ACTIONS_DIVIDER_MAXIMUM = 50f;
 	private static final int ACTIONS_COMPUTATION_TIME_MAXIMUM = 8;
 	private static final boolean DEBUG = false;
+	private static final long TELEMETRY_TEXT_UPDATE_INTERVAL = 500000000L;
+	private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+	private static final int MAXIMUM_TEXTURE_UPLOADS_PER_FRAME = 2;
 
 	// needed for UiTests - is disabled to fix crashes with EMMA coverage
 	// CHECKSTYLE DISABLE StaticVariableNameCheck FOR 1 LINES
 	private static boolean DYNAMIC_SAMPLING_RATE_FOR_ACTIONS = true;
 
 	private float deltaActionTimeDivisor = 10f;
+	private FixedTimestepScheduler fixedTimestepScheduler = null;
+	private final StageTelemetry telemetry = new StageTelemetry(StageTelemetry.DEFAULT_CAPACITY);
+	private volatile boolean telemetryOn = false;
+	private boolean telemetryRunning = false;
+	private long telemetryTextUpdateTime = 0;
+	private String telemetryText = "";
 	public static final String SCREENSHOT_AUTOMATIC_FILE_NAME = "automatic_screenshot"
 			+ Constants.IMAGE_STANDARD_EXTENTION;
 	public static final String SCREENSHOT_MANUAL_FILE_NAME = "manual_screenshot" + Constants.IMAGE_STANDARD_EXTENTION;
@@ -111,6 +127,12 @@ public class StageListener implements ApplicationListener {
 	private float virtualHeight;
 
 	private Texture axes;
+	private LookTextureAtlas lookTextureAtlas;
+	private final LinkedList<LookData> pendingTextureUploads = new LinkedList<LookData>();
+	private final LookSpatialIndex lookSpatialIndex = new LookSpatialIndex();
+	private final StageRuntime stageRuntime = new StageRuntime();
+	private LookTouchProcessor lookTouchProcessor;
+	private BrightnessShader brightnessShader;
 
 	private boolean makeTestPixels = false;
 	private byte[] testPixels;
@@ -155,26 +177,36 @@ public class StageListener implements ApplicationListener {
 		initScreenMode();
 
 		sprites = project.getSpriteList();
+		LookTextureCache.getInstance().setSprites(sprites);
+		LookTextureCache.getInstance().resetStatistics();
+		lookSpatialIndex.clear();
+		stageRuntime.clear();
 		for (Sprite sprite : sprites) {
 			sprite.resetSprite();
-			sprite.look.createBrightnessContrastShader();
+			sprite.look.setStageRuntime(stageRuntime);
 			stage.addActor(sprite.look);
+			lookSpatialIndex.add(sprite.look);
 			sprite.resume();
 		}
+		lookTextureAtlas = LookTextureAtlas.create(sprites, getMaximumTextureSize());
+		queueTextureUploads();
+		brightnessShader = new BrightnessShader();
+		FormulaOptimizer.optimizeProject(project);
 
 		passepartout = new Passepartout(ScreenValues.SCREEN_WIDTH, ScreenValues.SCREEN_HEIGHT, maximizeViewPortWidth,
 				maximizeViewPortHeight, virtualWidth, virtualHeight);
 		stage.addActor(passepartout);
+		lookTouchProcessor = new LookTouchProcessor(stage, lookSpatialIndex, virtualWidth, virtualHeight);
 
 		if (DEBUG) {
 			OrthoCamController camController = new OrthoCamController(camera);
 			InputMultiplexer multiplexer = new InputMultiplexer();
 			multiplexer.addProcessor(camController);
-			multiplexer.addProcessor(stage);
+			multiplexer.addProcessor(lookTouchProcessor);
 			Gdx.input.setInputProcessor(multiplexer);
 			fpsLogger = new FPSLogger();
 		} else {
-			Gdx.input.setInputProcessor(stage);
+			Gdx.input.setInputProcessor(lookTouchProcessor);
 		}
 
 		axes = new Texture(Gdx.files.internal("stage/red_pixel.bmp"));
@@ -190,6 +222,9 @@ public class StageListener implements ApplicationListener {
 			return;
 		}
 		paused = false;
+		if (fixedTimestepScheduler != null) {
+			fixedTimestepScheduler.reset();
+		}
 		SoundManager.getInstance().resume();
 		for (Sprite sprite : sprites) {
 			sprite.resume();
@@ -207,6 +242,29 @@ public class StageListener implements ApplicationListener {
 		}
 	}
 
+	/**
+	 * Runs the actions with the given number of fixed ticks per second instead of adapting the action time steps
+	 * to the device speed. A value of 0 switches back to the adaptive time steps.
+	 */
+	public void setFixedTickRate(int ticksPerSecond) {
+		if (ticksPerSecond == 0) {
+			fixedTimestepScheduler = null;
+		} else {
+			fixedTimestepScheduler = new FixedTimestepScheduler(ticksPerSecond);
+		}
+	}
+
+	public FixedTimestepScheduler getFixedTimestepScheduler() {
+		return fixedTimestepScheduler;
+	}
+
+	/**
+	 * Writes the results of the stage profiler into the directory of the project.
+	 */
+	public boolean exportProfile() {
+		return StageProfiler.getInstance().export(new File(Utils.buildProjectPath(project.getName())));
+	}
+
 	public void reloadProject(Context context, StageDialog stageDialog) {
 		if (reloadProject) {
 			return;
@@ -248,6 +306,7 @@ public class StageListener implements ApplicationListener {
 
 	public void finish() {
 		finished = true;
+		setTelemetryOn(false);
 		SoundManager.getInstance().clear();
 		if (thumbnail != null && !makeAutomaticScreenshot) {
 			saveScreenshot(thumbnail, SCREENSHOT_AUTOMATIC_FILE_NAME);
@@ -256,6 +315,7 @@ public class StageListener implements ApplicationListener {
 
 	@Override
 	public void render() {
+		boolean telemetryOnInFrame = telemetryOn;
 		Gdx.gl.glClearColor(1f, 1f, 1f, 1f);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 		if (reloadProject) {
@@ -270,13 +330,18 @@ public class StageListener implements ApplicationListener {
 			if (spriteSize > 0) {
 				sprites.get(0).look.setLookData(createWhiteBackgroundLookData());
 			}
+			lookSpatialIndex.clear();
+			stageRuntime.clear();
 			for (int i = 0; i < spriteSize; i++) {
 				sprite = sprites.get(i);
+				sprite.look.clearActions();
 				sprite.resetSprite();
-				sprite.look.createBrightnessContrastShader();
+				sprite.look.setStageRuntime(stageRuntime);
 				stage.addActor(sprite.look);
+				lookSpatialIndex.add(sprite.look);
 				sprite.pause();
 			}
+			queueTextureUploads();
 			stage.addActor(passepartout);
 
 			paused = true;
@@ -304,41 +369,65 @@ public class StageListener implements ApplicationListener {
 			}
 			firstStart = false;
 		}
+		long actTime = 0;
 		if (!paused) {
 			float deltaTime = Gdx.graphics.getDeltaTime();
-
-			/*
-			 * Necessary for UiTests, when EMMA - code coverage is enabled.
-			 * 
-			 * Without setting DYNAMIC_SAMPLING_RATE_FOR_ACTIONS to false(via reflection), before
-			 * the UiTest enters the stage, random segmentation faults(triggered by EMMA) will occur.
-			 * 
-			 * Can be removed, when EMMA is replaced by an other code coverage tool, or when a
-			 * future EMMA - update will fix the bugs.
-			 */
-			if (DYNAMIC_SAMPLING_RATE_FOR_ACTIONS == false) {
-				stage.act(deltaTime);
-			} else {
-				float optimizedDeltaTime = deltaTime / deltaActionTimeDivisor;
-				long timeBeforeActionsUpdate = SystemClock.uptimeMillis();
-				while (deltaTime > 0f) {
-					stage.act(optimizedDeltaTime);
-					deltaTime -= optimizedDeltaTime;
+			SensorHandler.beginFrame();
+			boolean profiling = StageProfiler.isEnabled();
+			long actStartTime = profiling || telemetryOnInFrame ? System.nanoTime() : 0;
+
+			if (fixedTimestepScheduler != null) {
+				int ticks = fixedTimestepScheduler.advance(deltaTime);
+				float tickDuration = fixedTimestepScheduler.getTickDuration();
+				for (int tick = 0; tick < ticks; tick++) {
+					actStage(tickDuration);
 				}
-				long executionTimeOfActionsUpdate = SystemClock.uptimeMillis() - timeBeforeActionsUpdate;
-				if (executionTimeOfActionsUpdate <= ACTIONS_COMPUTATION_TIME_MAXIMUM) {
-					deltaActionTimeDivisor += 1f;
-					deltaActionTimeDivisor = Math.min(DELTA_ACTIONS_DIVIDER_MAXIMUM, deltaActionTimeDivisor);
+			} else {
+				/*
+				 * Necessary for UiTests, when EMMA - code coverage is enabled.
+				 * 
+				 * Without setting DYNAMIC_SAMPLING_RATE_FOR_ACTIONS to false(via reflection), before
+				 * the UiTest enters the stage, random segmentation faults(triggered by EMMA) will occur.
+				 * 
+				 * Can be removed, when EMMA is replaced by an other code coverage tool, or when a
+				 * future EMMA - update will fix the bugs.
+				 */
+				if (DYNAMIC_SAMPLING_RATE_FOR_ACTIONS == false) {
+					actStage(deltaTime);
 				} else {
-					deltaActionTimeDivisor -= 1f;
-					deltaActionTimeDivisor = Math.max(1f, deltaActionTimeDivisor);
+					float optimizedDeltaTime = deltaTime / deltaActionTimeDivisor;
+					long timeBeforeActionsUpdate = SystemClock.uptimeMillis();
+					while (deltaTime > 0f) {
+						actStage(optimizedDeltaTime);
+						deltaTime -= optimizedDeltaTime;
+					}
+					long executionTimeOfActionsUpdate = SystemClock.uptimeMillis() - timeBeforeActionsUpdate;
+					if (executionTimeOfActionsUpdate <= ACTIONS_COMPUTATION_TIME_MAXIMUM) {
+						deltaActionTimeDivisor += 1f;
+						deltaActionTimeDivisor = Math.min(DELTA_ACTIONS_DIVIDER_MAXIMUM, deltaActionTimeDivisor);
+					} else {
+						deltaActionTimeDivisor -= 1f;
+						deltaActionTimeDivisor = Math.max(1f, deltaActionTimeDivisor);
+					}
 				}
 			}
+
+			actTime = System.nanoTime() - actStartTime;
+			if (profiling) {
+				StageProfiler.getInstance().recordFrame(actTime);
+			}
 		}
 
+		uploadPendingTextures();
+
+		long drawStartTime = System.nanoTime();
 		if (!finished) {
+			batch.setShader(brightnessShader);
 			stage.draw();
+			batch.setShader(null);
+			batch.setColor(Color.WHITE);
 		}
+		long drawTime = System.nanoTime() - drawStartTime;
 
 		if (makeAutomaticScreenshot) {
 			if (skipFirstFrameForAutomaticScreenshot) {
@@ -360,6 +449,18 @@ public class StageListener implements ApplicationListener {
 			drawAxes();
 		}
 
+		if (telemetryOnInFrame && !finished) {
+			if (!telemetryRunning) {
+				telemetry.clear();
+				telemetryText = "";
+				telemetryRunning = true;
+			}
+			updateTelemetry(actTime, drawTime);
+			drawTelemetry();
+		} else {
+			telemetryRunning = false;
+		}
+
 		if (DEBUG) {
 			fpsLogger.log();
 		}
@@ -370,6 +471,86 @@ public class StageListener implements ApplicationListener {
 		}
 	}
 
+	/**
+	 * @return the index over the bounds of all looks on the stage, for touch dispatch and queries like whether a
+	 *         sprite touches another one
+	 */
+	public LookSpatialIndex getLookSpatialIndex() {
+		return lookSpatialIndex;
+	}
+
+	public StageRuntime getStageRuntime() {
+		return stageRuntime;
+	}
+
+	public boolean isTelemetryOn() {
+		return telemetryOn;
+	}
+
+	/**
+	 * Shows frame time percentiles, the act and draw times, the number of running actions, the estimated texture
+	 * memory, the allocation and garbage collection rates and the look texture cache statistics on top of the
+	 * stage.
+	 */
+	public void setTelemetryOn(boolean on) {
+		if (on == telemetryOn) {
+			return;
+		}
+		if (on) {
+			Debug.resetGlobalAllocCount();
+			Debug.startAllocCounting();
+		} else {
+			Debug.stopAllocCounting();
+		}
+		telemetryOn = on;
+	}
+
+	private void updateTelemetry(long actTime, long drawTime) {
+		int activeActions = 0;
+		for (int i = 0, spriteSize = sprites.size(); i < spriteSize; i++) {
+			activeActions += sprites.get(i).look.getActions().size;
+		}
+		long frameTime = (long) (Gdx.graphics.getRawDeltaTime() * 1000000000L);
+		telemetry.recordFrame(frameTime, actTime, drawTime, activeActions);
+
+		long now = System.nanoTime();
+		telemetry.recordCounters(now, Debug.getGlobalAllocCount(), Debug.getGlobalGcInvocationCount());
+		if (now - telemetryTextUpdateTime >= TELEMETRY_TEXT_UPDATE_INTERVAL) {
+			long textureMemory = 0;
+			for (Sprite sprite : sprites) {
+				for (LookData lookData : sprite.getLookDataList()) {
+					textureMemory += lookData.getTextureMemoryEstimate();
+				}
+			}
+			textureMemory += LookTextureCache.getInstance().getTextureBytes();
+			telemetry.setTextureMemoryBytes(textureMemory);
+			telemetryText = createTelemetryText();
+			telemetryTextUpdateTime = now;
+		}
+	}
+
+	private String createTelemetryText() {
+		LookTextureCache lookTextureCache = LookTextureCache.getInstance();
+		return String.format(Locale.US, "frame p50 %.1f  p95 %.1f  p99 %.1f ms\n"
+				+ "act %.2f ms  draw %.2f ms\n" + "actions %d  textures %d KB\n" + "alloc/s %.0f  gc/s %.1f\n"
+				+ "cache %d KB  hits %d  misses %d  evictions %d",
+				telemetry.getFrameTimePercentile(50f) / NANOSECONDS_PER_MILLISECOND,
+				telemetry.getFrameTimePercentile(95f) / NANOSECONDS_PER_MILLISECOND,
+				telemetry.getFrameTimePercentile(99f) / NANOSECONDS_PER_MILLISECOND,
+				telemetry.getAverageActTimeNanos() / NANOSECONDS_PER_MILLISECOND,
+				telemetry.getAverageDrawTimeNanos() / NANOSECONDS_PER_MILLISECOND, telemetry.getActiveActionCount(),
+				telemetry.getTextureMemoryBytes() / 1024, telemetry.getAllocationsPerSecond(),
+				telemetry.getGcsPerSecond(), lookTextureCache.getResidentBytes() / 1024,
+				lookTextureCache.getHitCount(), lookTextureCache.getMissCount(), lookTextureCache.getEvictionCount());
+	}
+
+	private void drawTelemetry() {
+		batch.setProjectionMatrix(camera.combined);
+		batch.begin();
+		font.drawMultiLine(batch, telemetryText, -virtualWidthHalf + 5, virtualHeightHalf - 5);
+		batch.end();
+	}
+
 	private void drawAxes() {
 		batch.setProjectionMatrix(camera.combined);
 		batch.begin();
@@ -398,7 +579,14 @@ public class StageListener implements ApplicationListener {
 		stage.dispose();
 		font.dispose();
 		axes.dispose();
-		disposeTextures();
+		lookTextureAtlas.dispose();
+		brightnessShader.dispose();
+		LookTextureCache.getInstance().setSprites(null);
+		LookTextureCache.getInstance().clear();
+		stageRuntime.clear();
+		for (Sprite sprite : sprites) {
+			sprite.look.clearActions();
+		}
 	}
 
 	public boolean makeManualScreenshot() {
@@ -508,6 +696,44 @@ public class StageListener implements ApplicationListener {
 		camera.update();
 	}
 
+	private void actStage(float delta) {
+		stageRuntime.beginTick();
+		stage.act(delta);
+	}
+
+	/**
+	 * Looks outside the texture atlas get their textures a few per frame, so a project with many large looks does
+	 * not stall the first frame. Looks which are shown before their turn create their texture when drawn. Uploading
+	 * stops once the texture cache is full, so it does not evict textures it has just created.
+	 */
+	private void queueTextureUploads() {
+		pendingTextureUploads.clear();
+		for (Sprite sprite : sprites) {
+			for (LookData lookData : sprite.getLookDataList()) {
+				if (!lookData.isInTextureAtlas()) {
+					pendingTextureUploads.add(lookData);
+				}
+			}
+		}
+	}
+
+	private void uploadPendingTextures() {
+		LookTextureCache lookTextureCache = LookTextureCache.getInstance();
+		if (lookTextureCache.getResidentBytes() >= lookTextureCache.getMemoryBudget()) {
+			pendingTextureUploads.clear();
+			return;
+		}
+		for (int upload = 0; upload < MAXIMUM_TEXTURE_UPLOADS_PER_FRAME && !pendingTextureUploads.isEmpty(); upload++) {
+			pendingTextureUploads.removeFirst().getTextureRegion();
+		}
+	}
+
+	private int getMaximumTextureSize() {
+		IntBuffer maximumTextureSize = BufferUtils.newIntBuffer(16);
+		Gdx.gl.glGetIntegerv(GL20.GL_MAX_TEXTURE_SIZE, maximumTextureSize);
+		return maximumTextureSize.get(0);
+	}
+
 	private LookData createWhiteBackgroundLookData() {
 		LookData whiteBackground = new LookData();
 		Pixmap whiteBackgroundPixmap = new Pixmap((int) virtualWidth, (int) virtualHeight, Format.RGBA8888);
@@ -517,18 +743,4 @@ public class StageListener implements ApplicationListener {
 		whiteBackground.setTextureRegion();
 		return whiteBackground;
 	}
-
-	private void disposeTextures() {
-		List<Sprite> sprites = project.getSpriteList();
-		int spriteSize = sprites.size();
-		for (int i = 0; i > spriteSize; i++) {
-			List<LookData> data = sprites.get(i).getLookDataList();
-			int dataSize = data.size();
-			for (int j = 0; j < dataSize; j++) {
-				LookData lookData = data.get(j);
-				lookData.getPixmap().dispose();
-				lookData.getTextureRegion().getTexture().dispose();
-			}
-		}
-	}
 }
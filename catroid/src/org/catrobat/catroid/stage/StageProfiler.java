@@ -0,0 +1,340 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import android.util.Log;
+
+import org.catrobat.catroid.content.BroadcastScript;
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.WhenScript;
+import org.catrobat.catroid.content.actions.ScriptSequenceAction;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes the time spent acting on actions, the number of action steps and the formula evaluations to the
+ * sprites and scripts of the running project. Scripts are known through their {@link ScriptSequenceAction}, so
+ * scripts which were started before the profiler was enabled are attributed as well. While the profiler is
+ * disabled the stage only reads {@link #isEnabled()} once per look, script sequence and formula evaluation.
+ */
+public final class StageProfiler {
+	private static final String TAG = StageProfiler.class.getSimpleName();
+
+	public static final String CSV_FILE_NAME = "profile.csv";
+	public static final String JSON_FILE_NAME = "profile.json";
+	private static final String CSV_HEADER = "type,name,act_time_ms,action_steps,formula_evaluations,"
+			+ "formula_time_ms";
+	private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+
+	private static final StageProfiler INSTANCE = new StageProfiler();
+	private static volatile boolean enabled = false;
+
+	private final Map<Sprite, Entry> spriteEntries = new LinkedHashMap<Sprite, Entry>();
+	private final Map<Script, Entry> scriptEntries = new LinkedHashMap<Script, Entry>();
+
+	private long frameCount = 0;
+	private long totalActTimeNanos = 0;
+
+	private Sprite currentSprite = null;
+	private Script currentScript = null;
+	private long currentActionStartTime = 0;
+
+	private StageProfiler() {
+	}
+
+	public static StageProfiler getInstance() {
+		return INSTANCE;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enabling the profiler discards the results of a previous profiling session.
+	 */
+	public static void setEnabled(boolean enable) {
+		if (enable && !enabled) {
+			INSTANCE.reset();
+		}
+		enabled = enable;
+	}
+
+	public synchronized void reset() {
+		spriteEntries.clear();
+		scriptEntries.clear();
+		frameCount = 0;
+		totalActTimeNanos = 0;
+		currentSprite = null;
+		currentScript = null;
+	}
+
+	public synchronized void recordFrame(long actTimeNanos) {
+		frameCount++;
+		totalActTimeNanos += actTimeNanos;
+	}
+
+	public synchronized void beginAction(Sprite sprite) {
+		currentSprite = sprite;
+		currentScript = null;
+		currentActionStartTime = System.nanoTime();
+	}
+
+	public synchronized void endAction() {
+		if (currentSprite == null) {
+			return;
+		}
+		getSpriteEntry(currentSprite).addActionStep(System.nanoTime() - currentActionStartTime);
+		currentSprite = null;
+		currentScript = null;
+	}
+
+	/**
+	 * Called by a script sequence before it acts, formula evaluations until {@link #endScript(Script, long)} are
+	 * attributed to the script.
+	 * 
+	 * @return the script which was acting before, to be handed back to {@link #endScript(Script, long)}
+	 */
+	public synchronized Script beginScript(Script script) {
+		Script outerScript = currentScript;
+		currentScript = script;
+		return outerScript;
+	}
+
+	public synchronized void endScript(Script outerScript, long actTimeNanos) {
+		if (currentSprite != null && currentScript != null) {
+			getScriptEntry(currentSprite, currentScript).addActionStep(actTimeNanos);
+		}
+		currentScript = outerScript;
+	}
+
+	public synchronized void recordFormulaEvaluation(Sprite sprite, long evaluationTimeNanos) {
+		if (sprite == null) {
+			return;
+		}
+		getSpriteEntry(sprite).addFormulaEvaluation(evaluationTimeNanos);
+		if (sprite == currentSprite && currentScript != null) {
+			getScriptEntry(sprite, currentScript).addFormulaEvaluation(evaluationTimeNanos);
+		}
+	}
+
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+
+	public synchronized long getTotalActTimeNanos() {
+		return totalActTimeNanos;
+	}
+
+	public synchronized List<Entry> getSpriteEntries() {
+		return copyEntries(spriteEntries);
+	}
+
+	public synchronized List<Entry> getScriptEntries() {
+		return copyEntries(scriptEntries);
+	}
+
+	public synchronized void writeCsv(Writer writer) throws IOException {
+		writer.write(CSV_HEADER);
+		writer.write('\n');
+		for (Entry entry : spriteEntries.values()) {
+			writeCsvLine(writer, "sprite", entry);
+		}
+		for (Entry entry : scriptEntries.values()) {
+			writeCsvLine(writer, "script", entry);
+		}
+	}
+
+	public synchronized JSONObject toJson() throws JSONException {
+		JSONObject profile = new JSONObject();
+		profile.put("frames", frameCount);
+		profile.put("act_time_ms", totalActTimeNanos / NANOSECONDS_PER_MILLISECOND);
+		profile.put("sprites", toJsonArray(spriteEntries.values()));
+		profile.put("scripts", toJsonArray(scriptEntries.values()));
+		return profile;
+	}
+
+	/**
+	 * Writes the results as {@link #CSV_FILE_NAME} and {@link #JSON_FILE_NAME} into the given directory.
+	 */
+	public boolean export(File directory) {
+		Writer csvWriter = null;
+		Writer jsonWriter = null;
+		try {
+			csvWriter = new BufferedWriter(new FileWriter(new File(directory, CSV_FILE_NAME)));
+			writeCsv(csvWriter);
+			jsonWriter = new BufferedWriter(new FileWriter(new File(directory, JSON_FILE_NAME)));
+			jsonWriter.write(toJson().toString());
+			return true;
+		} catch (IOException ioException) {
+			Log.e(TAG, Log.getStackTraceString(ioException));
+		} catch (JSONException jsonException) {
+			Log.e(TAG, Log.getStackTraceString(jsonException));
+		} finally {
+			closeQuietly(csvWriter);
+			closeQuietly(jsonWriter);
+		}
+		return false;
+	}
+
+	private Entry getSpriteEntry(Sprite sprite) {
+		Entry entry = spriteEntries.get(sprite);
+		if (entry == null) {
+			entry = new Entry(sprite.getName());
+			spriteEntries.put(sprite, entry);
+		}
+		return entry;
+	}
+
+	private Entry getScriptEntry(Sprite sprite, Script script) {
+		Entry entry = scriptEntries.get(script);
+		if (entry == null) {
+			entry = new Entry(getScriptName(sprite, script));
+			scriptEntries.put(script, entry);
+		}
+		return entry;
+	}
+
+	private static String getScriptName(Sprite sprite, Script script) {
+		StringBuilder name = new StringBuilder();
+		name.append(sprite.getName()).append('/').append(sprite.getScriptIndex(script)).append(' ')
+				.append(script.getClass().getSimpleName());
+		if (script instanceof BroadcastScript) {
+			name.append(' ').append(((BroadcastScript) script).getBroadcastMessage());
+		} else if (script instanceof WhenScript) {
+			name.append(' ').append(((WhenScript) script).getAction());
+		}
+		return name.toString();
+	}
+
+	private static List<Entry> copyEntries(Map<?, Entry> entries) {
+		List<Entry> copies = new ArrayList<Entry>(entries.size());
+		for (Entry entry : entries.values()) {
+			copies.add(new Entry(entry));
+		}
+		return copies;
+	}
+
+	private static void writeCsvLine(Writer writer, String type, Entry entry) throws IOException {
+		writer.write(type + "," + escapeCsv(entry.name) + "," + entry.actTimeNanos / NANOSECONDS_PER_MILLISECOND
+				+ "," + entry.actionSteps + "," + entry.formulaEvaluations + ","
+				+ entry.formulaTimeNanos / NANOSECONDS_PER_MILLISECOND + "\n");
+	}
+
+	private static String escapeCsv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	private static JSONArray toJsonArray(Iterable<Entry> entries) throws JSONException {
+		JSONArray array = new JSONArray();
+		for (Entry entry : entries) {
+			JSONObject object = new JSONObject();
+			object.put("name", entry.name);
+			object.put("act_time_ms", entry.actTimeNanos / NANOSECONDS_PER_MILLISECOND);
+			object.put("action_steps", entry.actionSteps);
+			object.put("formula_evaluations", entry.formulaEvaluations);
+			object.put("formula_time_ms", entry.formulaTimeNanos / NANOSECONDS_PER_MILLISECOND);
+			array.put(object);
+		}
+		return array;
+	}
+
+	private static void closeQuietly(Writer writer) {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException ioException) {
+			Log.e(TAG, Log.getStackTraceString(ioException));
+		}
+	}
+
+	/**
+	 * The act time includes the time of the formula evaluations done by the actions.
+	 */
+	public static final class Entry {
+		private final String name;
+		private long actTimeNanos;
+		private long actionSteps;
+		private long formulaEvaluations;
+		private long formulaTimeNanos;
+
+		private Entry(String name) {
+			this.name = name;
+		}
+
+		private Entry(Entry entry) {
+			name = entry.name;
+			actTimeNanos = entry.actTimeNanos;
+			actionSteps = entry.actionSteps;
+			formulaEvaluations = entry.formulaEvaluations;
+			formulaTimeNanos = entry.formulaTimeNanos;
+		}
+
+		private void addActionStep(long timeNanos) {
+			actionSteps++;
+			actTimeNanos += timeNanos;
+		}
+
+		private void addFormulaEvaluation(long timeNanos) {
+			formulaEvaluations++;
+			formulaTimeNanos += timeNanos;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getActTimeNanos() {
+			return actTimeNanos;
+		}
+
+		public long getActionSteps() {
+			return actionSteps;
+		}
+
+		public long getFormulaEvaluations() {
+			return formulaEvaluations;
+		}
+
+		public long getFormulaTimeNanos() {
+			return formulaTimeNanos;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.common.BroadcastReceiverState;
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.Look;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The broadcast receivers, the running broadcast waits and the actions to restart of one running stage. Every
+ * {@link StageListener} and {@link HeadlessStage} has its own runtime, so broadcasts of a stage which has been left
+ * do not reach the next one, and a look which is not on a stage has a runtime of its own. Stages still share the
+ * current project, the look caches and the action pools, so only one stage may act at a time. A runtime is not
+ * thread safe and has to be used by the thread acting the looks.
+ */
+public class StageRuntime {
+	public interface BroadcastObserver {
+		void onBroadcast(BroadcastEvent event);
+	}
+
+	private final HashMap<String, ArrayList<BroadcastReceiverState>> broadcastReceivers =
+			new HashMap<String, ArrayList<BroadcastReceiverState>>();
+	private final HashMap<SequenceAction, BroadcastReceiverState> receiverStates =
+			new HashMap<SequenceAction, BroadcastReceiverState>();
+	private final HashMap<String, BroadcastWait> broadcastWaits = new HashMap<String, BroadcastWait>();
+	private final Set<Action> actionsToRestart = Collections.newSetFromMap(new IdentityHashMap<Action, Boolean>());
+	private HashSet<String> messagesOfTick = null;
+	private BroadcastObserver broadcastObserver = null;
+
+	/**
+	 * Is told about every dispatched broadcast, e.g. to record a trace. Pass null to remove the observer.
+	 */
+	public void setBroadcastObserver(BroadcastObserver observer) {
+		broadcastObserver = observer;
+	}
+
+	/**
+	 * Registers the sequence of a broadcast script together with the look of its sprite, which runs the sequence
+	 * when the message is broadcast.
+	 */
+	public void addBroadcastReceiver(String message, SequenceAction sequence, Look look) {
+		ArrayList<BroadcastReceiverState> receiverList = broadcastReceivers.get(message);
+		if (receiverList == null) {
+			receiverList = new ArrayList<BroadcastReceiverState>();
+			broadcastReceivers.put(message, receiverList);
+		}
+		BroadcastReceiverState receiver = new BroadcastReceiverState(sequence, look, this);
+		receiverList.add(receiver);
+		receiverStates.put(sequence, receiver);
+	}
+
+	/**
+	 * Marks the start of an act step of the stage. Broadcasts of the same message within one step are delivered
+	 * only once, a runtime whose steps are never started delivers every broadcast.
+	 */
+	public void beginTick() {
+		if (messagesOfTick == null) {
+			messagesOfTick = new HashSet<String>();
+		} else {
+			messagesOfTick.clear();
+		}
+	}
+
+	/**
+	 * Starts or restarts the broadcast scripts receiving the message of the event on the looks of their sprites.
+	 */
+	public void dispatchBroadcast(BroadcastEvent event) {
+		if (broadcastObserver != null) {
+			broadcastObserver.onBroadcast(event);
+		}
+		String message = event.getBroadcastMessage();
+		ArrayList<BroadcastReceiverState> receiverList = broadcastReceivers.get(message);
+		if (receiverList == null) {
+			return;
+		}
+		if (event.getType().equals(BroadcastType.broadcastWait)) {
+			if (messagesOfTick != null) {
+				// a later broadcast of the message in this step has to restart the new waiting receivers
+				messagesOfTick.remove(message);
+			}
+			startBroadcastWait(event, receiverList);
+		} else if (messagesOfTick == null || messagesOfTick.add(message)) {
+			startBroadcast(message, receiverList);
+		}
+	}
+
+	/**
+	 * Resumes the script waiting for the event, once all receivers have finished.
+	 */
+	public void finishBroadcastWait(BroadcastEvent event) {
+		event.resetEventAndResumeScript();
+		BroadcastWait broadcastWait = broadcastWaits.get(event.getBroadcastMessage());
+		if (broadcastWait != null && broadcastWait.event == event) {
+			broadcastWaits.remove(event.getBroadcastMessage());
+			broadcastWait.releaseReceivers();
+		}
+	}
+
+	public boolean isWaitingForReceivers(BroadcastEvent event) {
+		BroadcastWait broadcastWait = broadcastWaits.get(event.getBroadcastMessage());
+		return broadcastWait != null && broadcastWait.event == event;
+	}
+
+	public void addActionToRestart(Action action) {
+		actionsToRestart.add(action);
+	}
+
+	/**
+	 * Restarts the actions queued by broadcasts since the last call. Is called by every look before it acts.
+	 */
+	public void restartActions() {
+		if (actionsToRestart.isEmpty()) {
+			return;
+		}
+		for (Action action : actionsToRestart) {
+			action.restart();
+		}
+		actionsToRestart.clear();
+	}
+
+	/**
+	 * Forgets all receivers and returns the receiver sequences which were never started to their pools. The started
+	 * ones are released together with the other actions of their looks, so this has to be called before the actions
+	 * of the looks are cleared.
+	 */
+	public void clear() {
+		for (BroadcastReceiverState receiver : receiverStates.values()) {
+			if (!receiver.isStarted()) {
+				receiver.getReceiverSequence().setActor(null);
+			}
+		}
+		broadcastReceivers.clear();
+		receiverStates.clear();
+		broadcastWaits.clear();
+		actionsToRestart.clear();
+		if (messagesOfTick != null) {
+			messagesOfTick.clear();
+		}
+	}
+
+	private void startBroadcast(String message, ArrayList<BroadcastReceiverState> receiverList) {
+		BroadcastWait broadcastWait = broadcastWaits.remove(message);
+		if (broadcastWait != null) {
+			// the receivers are restarted without the waiter, so it continues
+			broadcastWait.releaseReceivers();
+			broadcastWait.event.resetEventAndResumeScript();
+		}
+		for (BroadcastReceiverState receiver : receiverList) {
+			startReceiver(receiver);
+		}
+	}
+
+	private void startBroadcastWait(BroadcastEvent event, ArrayList<BroadcastReceiverState> receiverList) {
+		BroadcastWait broadcastWait = broadcastWaits.get(event.getBroadcastMessage());
+		if (broadcastWait != null && broadcastWait.event == event) {
+			event.resetNumberOfFinishedReceivers();
+			for (BroadcastReceiverState receiver : broadcastWait.receivers) {
+				startReceiver(receiver);
+			}
+			return;
+		}
+		if (broadcastWait != null) {
+			// the receivers are taken over by the new event, so the earlier waiter continues
+			broadcastWait.releaseReceivers();
+			broadcastWait.event.resetEventAndResumeScript();
+		}
+
+		broadcastWait = new BroadcastWait(event);
+		for (BroadcastReceiverState receiver : receiverList) {
+			event.raiseNumberOfReceivers();
+			broadcastWait.receivers.add(receiver);
+			receiver.setWaitEvent(event);
+			startReceiver(receiver);
+		}
+		broadcastWaits.put(event.getBroadcastMessage(), broadcastWait);
+	}
+
+	private void startReceiver(BroadcastReceiverState receiver) {
+		SequenceAction receiverSequence = receiver.getReceiverSequence();
+		if (receiver.isStarted()) {
+			actionsToRestart.add(receiverSequence);
+		} else {
+			// the receiver sequence is new, every later start restarts it on the look
+			receiver.getLook().addAction(receiverSequence);
+		}
+	}
+
+	private static class BroadcastWait {
+		private final BroadcastEvent event;
+		private final ArrayList<BroadcastReceiverState> receivers = new ArrayList<BroadcastReceiverState>();
+
+		public BroadcastWait(BroadcastEvent event) {
+			this.event = event;
+		}
+
+		private void releaseReceivers() {
+			for (BroadcastReceiverState receiver : receivers) {
+				receiver.setWaitEvent(null);
+			}
+		}
+	}
+}
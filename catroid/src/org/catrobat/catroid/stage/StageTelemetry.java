@@ -0,0 +1,171 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the timings of the most recent frames in a ring buffer and turns allocation and garbage collection
+ * counters into rates per second. Recording a frame does not allocate.
+ */
+public final class StageTelemetry {
+
+	public static final int DEFAULT_CAPACITY = 300;
+	private static final long NANOSECONDS_PER_SECOND = 1000000000L;
+
+	private final long[] frameTimes;
+	private final long[] actTimes;
+	private final long[] drawTimes;
+	private final long[] sortedFrameTimes;
+	private int nextIndex = 0;
+	private int sampleCount = 0;
+	private boolean sortedFrameTimesValid = false;
+
+	private int activeActionCount = 0;
+	private long textureMemoryBytes = 0;
+
+	private long counterSampleTime = -1;
+	private long allocationCountAtSample;
+	private long gcCountAtSample;
+	private float allocationsPerSecond = 0f;
+	private float gcsPerSecond = 0f;
+
+	public StageTelemetry(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+		}
+		frameTimes = new long[capacity];
+		actTimes = new long[capacity];
+		drawTimes = new long[capacity];
+		sortedFrameTimes = new long[capacity];
+	}
+
+	public void recordFrame(long frameTimeNanos, long actTimeNanos, long drawTimeNanos, int activeActions) {
+		frameTimes[nextIndex] = frameTimeNanos;
+		actTimes[nextIndex] = actTimeNanos;
+		drawTimes[nextIndex] = drawTimeNanos;
+		nextIndex = (nextIndex + 1) % frameTimes.length;
+		if (sampleCount < frameTimes.length) {
+			sampleCount++;
+		}
+		activeActionCount = activeActions;
+		sortedFrameTimesValid = false;
+	}
+
+	/**
+	 * Updates the rates per second from the total number of allocations and garbage collections so far. The rates
+	 * are recomputed once at least a second has passed since the previous update.
+	 */
+	public void recordCounters(long timeNanos, long allocationCount, long gcCount) {
+		if (counterSampleTime < 0) {
+			counterSampleTime = timeNanos;
+			allocationCountAtSample = allocationCount;
+			gcCountAtSample = gcCount;
+			return;
+		}
+		long elapsed = timeNanos - counterSampleTime;
+		if (elapsed < NANOSECONDS_PER_SECOND) {
+			return;
+		}
+		float seconds = (float) elapsed / NANOSECONDS_PER_SECOND;
+		allocationsPerSecond = (allocationCount - allocationCountAtSample) / seconds;
+		gcsPerSecond = (gcCount - gcCountAtSample) / seconds;
+		counterSampleTime = timeNanos;
+		allocationCountAtSample = allocationCount;
+		gcCountAtSample = gcCount;
+	}
+
+	public void setTextureMemoryBytes(long bytes) {
+		textureMemoryBytes = bytes;
+	}
+
+	public void clear() {
+		nextIndex = 0;
+		sampleCount = 0;
+		sortedFrameTimesValid = false;
+		activeActionCount = 0;
+		counterSampleTime = -1;
+		allocationsPerSecond = 0f;
+		gcsPerSecond = 0f;
+	}
+
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 * @return the frame time below which the given percentage of the recorded frames lie, by nearest rank
+	 */
+	public long getFrameTimePercentile(float percentile) {
+		if (percentile < 0f || percentile > 100f) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100, was " + percentile);
+		}
+		if (sampleCount == 0) {
+			return 0;
+		}
+		if (!sortedFrameTimesValid) {
+			System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, sampleCount);
+			Arrays.sort(sortedFrameTimes, 0, sampleCount);
+			sortedFrameTimesValid = true;
+		}
+		int rank = (int) Math.ceil(percentile / 100f * sampleCount);
+		return sortedFrameTimes[Math.max(0, rank - 1)];
+	}
+
+	public long getAverageActTimeNanos() {
+		return average(actTimes);
+	}
+
+	public long getAverageDrawTimeNanos() {
+		return average(drawTimes);
+	}
+
+	public int getActiveActionCount() {
+		return activeActionCount;
+	}
+
+	public long getTextureMemoryBytes() {
+		return textureMemoryBytes;
+	}
+
+	public float getAllocationsPerSecond() {
+		return allocationsPerSecond;
+	}
+
+	public float getGcsPerSecond() {
+		return gcsPerSecond;
+	}
+
+	private long average(long[] values) {
+		if (sampleCount == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < sampleCount; i++) {
+			sum += values[i];
+		}
+		return sum / sampleCount;
+	}
+}
@@ -34,6 +34,7 @@ import com.actionbarsherlock.app.SherlockPreferenceActivity;
 
 import org.catrobat.catroid.BuildConfig;
 import org.catrobat.catroid.R;
+import org.catrobat.catroid.formulaeditor.SensorPolicy;
 
 public class SettingsActivity extends SherlockPreferenceActivity {
 
@@ -42,6 +43,9 @@ public class SettingsActivity extends SherlockPreferenceActivity {
 	public static final String SETTINGS_QUADCOPTER_BRICKS = "setting_quadcopter_bricks";
 	public static final String SETTINGS_QUADCOPTER_CATROBAT_TERMS_OF_SERVICE_ACCEPTED_PERMANENTLY = "setting_quadcopter_catrobat_terms_of_service_accpted_permanently";
 
+	public static final String SETTINGS_STAGE_TICK_RATE = "setting_stage_tick_rate";
+	public static final String SETTINGS_SENSOR_SMOOTHING = "setting_sensor_smoothing";
+
 	PreferenceScreen screen = null;
 
 	@SuppressWarnings("deprecation")
@@ -76,6 +80,29 @@ public class SettingsActivity extends SherlockPreferenceActivity {
 				context);
 	}
 
+	public static int getStageTickRate(Context context) {
+		String tickRate = getSharedPreferences(context).getString(SETTINGS_STAGE_TICK_RATE, "0");
+		try {
+			return Math.max(0, Integer.parseInt(tickRate));
+		} catch (NumberFormatException numberFormatException) {
+			return 0;
+		}
+	}
+
+	public static float getSensorLowPassFilterFactor(Context context) {
+		String factor = getSharedPreferences(context).getString(SETTINGS_SENSOR_SMOOTHING,
+				String.valueOf(SensorPolicy.NO_FILTERING));
+		try {
+			float lowPassFilterFactor = Float.parseFloat(factor);
+			if (lowPassFilterFactor > 0f && lowPassFilterFactor <= SensorPolicy.NO_FILTERING) {
+				return lowPassFilterFactor;
+			}
+			return SensorPolicy.NO_FILTERING;
+		} catch (NumberFormatException numberFormatException) {
+			return SensorPolicy.NO_FILTERING;
+		}
+	}
+
 	private static void setBooleanSharedPreference(boolean value, String settingsString, Context context) {
 		getSharedPreferences(context).edit().putBoolean(settingsString, value).commit();
 
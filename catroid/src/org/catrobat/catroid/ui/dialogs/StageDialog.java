@@ -35,10 +35,9 @@ import android.widget.ImageButton;
 import android.widget.Toast;
 
 import org.catrobat.catroid.R;
-import org.catrobat.catroid.common.BroadcastSequenceMap;
-import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
 import org.catrobat.catroid.stage.StageActivity;
 import org.catrobat.catroid.stage.StageListener;
+import org.catrobat.catroid.stage.StageProfiler;
 
 public class StageDialog extends Dialog implements View.OnClickListener {
 	private StageActivity stageActivity;
@@ -71,6 +70,16 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 		((Button) findViewById(R.id.stage_dialog_button_restart)).setOnClickListener(this);
 		((Button) findViewById(R.id.stage_dialog_button_toggle_axes)).setOnClickListener(this);
 		((Button) findViewById(R.id.stage_dialog_button_screenshot)).setOnClickListener(this);
+		Button profilerToggleButton = (Button) findViewById(R.id.stage_dialog_button_toggle_profiler);
+		profilerToggleButton.setOnClickListener(this);
+		if (StageProfiler.isEnabled()) {
+			profilerToggleButton.setText(R.string.stage_dialog_profiler_off);
+		}
+		Button telemetryToggleButton = (Button) findViewById(R.id.stage_dialog_button_toggle_telemetry);
+		telemetryToggleButton.setOnClickListener(this);
+		if (stageListener.isTelemetryOn()) {
+			telemetryToggleButton.setText(R.string.stage_dialog_telemetry_off);
+		}
 		if (stageActivity.getResizePossible()) {
 			((ImageButton) findViewById(R.id.stage_dialog_button_maximize)).setOnClickListener(this);
 		} else {
@@ -89,7 +98,6 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 				stageActivity.resume();
 				break;
 			case R.id.stage_dialog_button_restart:
-				clearBroadcastMaps();
 				dismiss();
 				restartProject();
 				break;
@@ -102,6 +110,12 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 			case R.id.stage_dialog_button_screenshot:
 				makeScreenshot();
 				break;
+			case R.id.stage_dialog_button_toggle_profiler:
+				toggleProfiler();
+				break;
+			case R.id.stage_dialog_button_toggle_telemetry:
+				toggleTelemetry();
+				break;
 			default:
 				Log.w("CATROID", "Unimplemented button clicked! This shouldn't happen!");
 				break;
@@ -110,7 +124,7 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 
 	@Override
 	public void onBackPressed() {
-		clearBroadcastMaps();
+		StageProfiler.setEnabled(false);
 		dismiss();
 		stageActivity.exit();
 		new FinishThreadAndDisposeTexturesTask().execute(null, null, null);
@@ -147,10 +161,31 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 		}
 	}
 
-	private void clearBroadcastMaps() {
-		BroadcastSequenceMap.clear();
-		BroadcastWaitSequenceMap.clear();
-		BroadcastWaitSequenceMap.clearCurrentBroadcastEvent();
+	private void toggleProfiler() {
+		Button profilerToggleButton = (Button) findViewById(R.id.stage_dialog_button_toggle_profiler);
+		if (StageProfiler.isEnabled()) {
+			StageProfiler.setEnabled(false);
+			profilerToggleButton.setText(R.string.stage_dialog_profiler_on);
+			if (stageListener.exportProfile()) {
+				Toast.makeText(stageActivity, R.string.notification_profile_saved, LENGTH_SHORT).show();
+			} else {
+				Toast.makeText(stageActivity, R.string.error_profile_failed, LENGTH_SHORT).show();
+			}
+		} else {
+			StageProfiler.setEnabled(true);
+			profilerToggleButton.setText(R.string.stage_dialog_profiler_off);
+		}
+	}
+
+	private void toggleTelemetry() {
+		Button telemetryToggleButton = (Button) findViewById(R.id.stage_dialog_button_toggle_telemetry);
+		if (stageListener.isTelemetryOn()) {
+			stageListener.setTelemetryOn(false);
+			telemetryToggleButton.setText(R.string.stage_dialog_telemetry_on);
+		} else {
+			stageListener.setTelemetryOn(true);
+			telemetryToggleButton.setText(R.string.stage_dialog_telemetry_off);
+		}
 	}
 
 	private class FinishThreadAndDisposeTexturesTask extends AsyncTask<Void, Void, Void> {
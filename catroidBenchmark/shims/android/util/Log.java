@@ -0,0 +1,75 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package android.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Plain JVM replacement for android.util.Log. Log output is discarded, so that logging in the hot path
+ * costs the same as on a device with a disabled log level.
+ */
+public final class Log {
+
+	// Suppress default constructor for noninstantiability
+	private Log() {
+		throw new AssertionError();
+	}
+
+	public static int v(String tag, String message) {
+		return 0;
+	}
+
+	public static int d(String tag, String message) {
+		return 0;
+	}
+
+	public static int i(String tag, String message) {
+		return 0;
+	}
+
+	public static int w(String tag, String message) {
+		return 0;
+	}
+
+	public static int w(String tag, String message, Throwable throwable) {
+		return 0;
+	}
+
+	public static int e(String tag, String message) {
+		return 0;
+	}
+
+	public static int e(String tag, String message, Throwable throwable) {
+		return 0;
+	}
+
+	public static String getStackTraceString(Throwable throwable) {
+		if (throwable == null) {
+			return "";
+		}
+		StringWriter stringWriter = new StringWriter();
+		throwable.printStackTrace(new PrintWriter(stringWriter));
+		return stringWriter.toString();
+	}
+}
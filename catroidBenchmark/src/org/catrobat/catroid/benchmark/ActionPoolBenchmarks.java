@@ -0,0 +1,121 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+import org.catrobat.catroid.formulaeditor.Formula;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocations of rebuilding the action sequences of scripts, as on every stage restart. The abandoned variant drops
+ * the old actions like the stage did before they were returned to their pools.
+ *
+ * Usage: ActionPoolBenchmarks [warmupMillis] [measurementMillis]
+ */
+public final class ActionPoolBenchmarks {
+	private static final long DEFAULT_WARMUP_MILLIS = 500;
+	private static final long DEFAULT_MEASUREMENT_MILLIS = 1000;
+	private static final int[] BRICK_COUNTS = { 10, 100, 500 };
+
+	// Suppress default constructor for noninstantiability
+	private ActionPoolBenchmarks() {
+		throw new AssertionError();
+	}
+
+	public static void main(String[] args) {
+		long warmupMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_WARMUP_MILLIS;
+		long measurementMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MEASUREMENT_MILLIS;
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		addBenchmarks(benchmarks);
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measurementMillis);
+		PrintStream out = System.out;
+		for (Benchmark benchmark : benchmarks) {
+			out.println(runner.run(benchmark));
+		}
+		out.println("(sink " + runner.getSink() + ")");
+	}
+
+	public static void addBenchmarks(List<Benchmark> benchmarks) {
+		for (int brickCount : BRICK_COUNTS) {
+			benchmarks.add(createRebuildBenchmark(brickCount, false));
+			benchmarks.add(createRebuildBenchmark(brickCount, true));
+		}
+	}
+
+	private static Benchmark createRebuildBenchmark(final int brickCount, final boolean release) {
+		final Sprite sprite = new Sprite("benchmark");
+		final Formula value = new Formula(1);
+		String variant = release ? "released to pools" : "abandoned";
+
+		return new Benchmark("script of " + brickCount + " bricks: rebuild, " + variant) {
+			@Override
+			public Object runOperation() {
+				SequenceAction sequence = createSequence(sprite, value, brickCount);
+				sprite.look.addAction(sequence);
+				if (release) {
+					sprite.look.clearActions();
+				} else {
+					sprite.look.getActions().clear();
+				}
+				return sequence;
+			}
+		};
+	}
+
+	/**
+	 * Builds a sequence like Script.run does for a script mixing motion, looks and control bricks.
+	 */
+	private static SequenceAction createSequence(Sprite sprite, Formula value, int brickCount) {
+		SequenceAction sequence = ExtendedActions.sequence();
+		for (int brick = 0; brick < brickCount; brick++) {
+			switch (brick % 5) {
+				case 0:
+					sequence.addAction(ExtendedActions.setX(sprite, value));
+					break;
+				case 1:
+					sequence.addAction(ExtendedActions.changeYByN(sprite, value));
+					break;
+				case 2:
+					sequence.addAction(ExtendedActions.turnLeft(sprite, value));
+					break;
+				case 3:
+					sequence.addAction(ExtendedActions.ifLogc(sprite, value,
+							ExtendedActions.sequence(ExtendedActions.show(sprite)),
+							ExtendedActions.sequence(ExtendedActions.hide(sprite))));
+					break;
+				default:
+					sequence.addAction(ExtendedActions.delay(sprite, value));
+					break;
+			}
+		}
+		return sequence;
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+public class BenchmarkResult {
+	public static final long ALLOCATION_NOT_MEASURED = -1;
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final String name;
+	private final long operations;
+	private final long elapsedNanos;
+	private final long allocatedBytes;
+
+	public BenchmarkResult(String name, long operations, long elapsedNanos, long allocatedBytes) {
+		this.name = name;
+		this.operations = operations;
+		this.elapsedNanos = elapsedNanos;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getOperations() {
+		return operations;
+	}
+
+	public double getOperationsPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+		return operations * NANOS_PER_SECOND / elapsedNanos;
+	}
+
+	public double getAllocatedBytesPerOperation() {
+		if (allocatedBytes == ALLOCATION_NOT_MEASURED || operations == 0) {
+			return ALLOCATION_NOT_MEASURED;
+		}
+		return (double) allocatedBytes / operations;
+	}
+
+	@Override
+	public String toString() {
+		String allocation = allocatedBytes == ALLOCATION_NOT_MEASURED ? "n/a" : String.format("%.1f",
+				getAllocatedBytesPerOperation());
+		return String.format("%-48s %14.1f ops/s %12s B/op", name, getOperationsPerSecond(), allocation);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class BenchmarkRunner {
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private static final int OPERATIONS_PER_TIME_CHECK = 64;
+
+	private final long warmupNanos;
+	private final long measurementNanos;
+	private final com.sun.management.ThreadMXBean allocationBean;
+
+	private int sink;
+
+	public BenchmarkRunner(long warmupMillis, long measurementMillis) {
+		this.warmupNanos = warmupMillis * NANOS_PER_MILLI;
+		this.measurementNanos = measurementMillis * NANOS_PER_MILLI;
+		this.allocationBean = createAllocationBean();
+	}
+
+	public BenchmarkResult run(Benchmark benchmark) {
+		runFor(benchmark, warmupNanos);
+
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = getAllocatedBytes(threadId);
+		long startTime = System.nanoTime();
+		long operations = runFor(benchmark, measurementNanos);
+		long elapsedNanos = System.nanoTime() - startTime;
+		long allocatedAfter = getAllocatedBytes(threadId);
+
+		long allocatedBytes = BenchmarkResult.ALLOCATION_NOT_MEASURED;
+		if (allocatedBefore != BenchmarkResult.ALLOCATION_NOT_MEASURED) {
+			allocatedBytes = allocatedAfter - allocatedBefore;
+		}
+		return new BenchmarkResult(benchmark.getName(), operations, elapsedNanos, allocatedBytes);
+	}
+
+	/**
+	 * Returns a value depending on all operation results, so that they are not optimized away.
+	 */
+	public int getSink() {
+		return sink;
+	}
+
+	private long runFor(Benchmark benchmark, long durationNanos) {
+		long operations = 0;
+		long endTime = System.nanoTime() + durationNanos;
+		do {
+			for (int i = 0; i < OPERATIONS_PER_TIME_CHECK; i++) {
+				Object result = benchmark.runOperation();
+				sink += result == null ? 0 : result.hashCode();
+			}
+			operations += OPERATIONS_PER_TIME_CHECK;
+		} while (System.nanoTime() < endTime);
+		return operations;
+	}
+
+	private long getAllocatedBytes(long threadId) {
+		if (allocationBean == null) {
+			return BenchmarkResult.ALLOCATION_NOT_MEASURED;
+		}
+		return allocationBean.getThreadAllocatedBytes(threadId);
+	}
+
+	private static com.sun.management.ThreadMXBean createAllocationBean() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+		if (!allocationBean.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		allocationBean.setThreadAllocatedMemoryEnabled(true);
+		return allocationBean;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+import org.catrobat.catroid.stage.StageRuntime;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of one broadcast for a growing number of sprites and running actions per sprite. Only one sprite receives
+ * the broadcast, so the cost should not depend on the size of the project.
+ *
+ * Usage: BroadcastBenchmarks [warmupMillis] [measurementMillis]
+ */
+public final class BroadcastBenchmarks {
+	private static final long DEFAULT_WARMUP_MILLIS = 500;
+	private static final long DEFAULT_MEASUREMENT_MILLIS = 1000;
+	private static final int[] SPRITE_COUNTS = { 10, 100, 1000 };
+	private static final int[] ACTIONS_PER_SPRITE = { 1, 10, 50 };
+
+	// Suppress default constructor for noninstantiability
+	private BroadcastBenchmarks() {
+		throw new AssertionError();
+	}
+
+	public static void main(String[] args) {
+		long warmupMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_WARMUP_MILLIS;
+		long measurementMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MEASUREMENT_MILLIS;
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		addBenchmarks(benchmarks);
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measurementMillis);
+		PrintStream out = System.out;
+		for (Benchmark benchmark : benchmarks) {
+			out.println(runner.run(benchmark));
+		}
+		out.println("(sink " + runner.getSink() + ")");
+	}
+
+	public static void addBenchmarks(List<Benchmark> benchmarks) {
+		for (int spriteCount : SPRITE_COUNTS) {
+			for (int actionsPerSprite : ACTIONS_PER_SPRITE) {
+				benchmarks.add(createBroadcastBenchmark(spriteCount, actionsPerSprite));
+			}
+		}
+	}
+
+	/**
+	 * One operation broadcasts the message and lets the receiving look act once, which restarts the receiver.
+	 */
+	private static Benchmark createBroadcastBenchmark(int spriteCount, int actionsPerSprite) {
+		String message = "broadcast " + spriteCount + " x " + actionsPerSprite;
+		final StageRuntime stageRuntime = new StageRuntime();
+		final Sprite receiverSprite = setUpProject(spriteCount, actionsPerSprite, stageRuntime);
+		stageRuntime.addBroadcastReceiver(message, ExtendedActions.sequence(), receiverSprite.look);
+
+		final BroadcastEvent event = new BroadcastEvent();
+		event.setType(BroadcastType.broadcast);
+		event.setBroadcastMessage(message);
+
+		return new Benchmark(spriteCount + " sprites, " + actionsPerSprite + " actions each: broadcast") {
+			@Override
+			public Object runOperation() {
+				stageRuntime.dispatchBroadcast(event);
+				receiverSprite.look.act(0f);
+				return receiverSprite.look.getActions().size;
+			}
+		};
+	}
+
+	private static Sprite setUpProject(int spriteCount, int actionsPerSprite, StageRuntime stageRuntime) {
+		Project project = new Project();
+		for (int spriteIndex = 0; spriteIndex < spriteCount; spriteIndex++) {
+			Sprite sprite = new Sprite("sprite " + spriteIndex);
+			sprite.look.setStageRuntime(stageRuntime);
+			for (int actionIndex = 0; actionIndex < actionsPerSprite; actionIndex++) {
+				sprite.look.addAction(ExtendedActions.sequence(ExtendedActions.delay(Float.MAX_VALUE)));
+			}
+			project.addSprite(sprite);
+		}
+
+		Sprite receiverSprite = new Sprite("receiver");
+		receiverSprite.look.setStageRuntime(stageRuntime);
+		project.addSprite(receiverSprite);
+		ProjectManager.getInstance().setProject(project);
+		return receiverSprite;
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.InternFormula;
+import org.catrobat.catroid.formulaeditor.InternFormulaParser;
+import org.catrobat.catroid.formulaeditor.InternToken;
+import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the hot paths of the formula engine on a plain JVM.
+ *
+ * Usage: FormulaBenchmarks [warmupMillis] [measurementMillis] [path to strings.xml]
+ */
+public final class FormulaBenchmarks {
+	private static final long DEFAULT_WARMUP_MILLIS = 500;
+	private static final long DEFAULT_MEASUREMENT_MILLIS = 1000;
+	private static final String DEFAULT_STRINGS_FILE = "../catroid/res/values/strings.xml";
+	private static final double RANDOM_FROM_VALUE = 1;
+	private static final double RANDOM_TO_VALUE = 5;
+
+	// Suppress default constructor for noninstantiability
+	private FormulaBenchmarks() {
+		throw new AssertionError();
+	}
+
+	public static void main(String[] args) throws Exception {
+		long warmupMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_WARMUP_MILLIS;
+		long measurementMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MEASUREMENT_MILLIS;
+		File stringsFile = new File(args.length > 2 ? args[2] : DEFAULT_STRINGS_FILE);
+
+		Sprite sprite = setUpProject();
+		ResourceStringContext context = new ResourceStringContext(stringsFile);
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		addBenchmarks(benchmarks, FormulaCorpus.createSyntheticCorpus(), sprite, context);
+		addBenchmarks(benchmarks, FormulaCorpus.createStandardProjectCorpus(), sprite, context);
+		FormulaEditorBenchmarks.addBenchmarks(benchmarks, context);
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measurementMillis);
+		PrintStream out = System.out;
+		for (Benchmark benchmark : benchmarks) {
+			out.println(runner.run(benchmark));
+		}
+		out.println("(sink " + runner.getSink() + ")");
+	}
+
+	public static void addBenchmarks(List<Benchmark> benchmarks, Map<String, FormulaElement> corpus,
+			Sprite sprite, ResourceStringContext context) {
+		for (Map.Entry<String, FormulaElement> entry : corpus.entrySet()) {
+			String name = entry.getKey();
+			FormulaElement root = entry.getValue();
+			benchmarks.add(createInterpretBenchmark(name, root, sprite));
+			benchmarks.add(createCompiledInterpretBenchmark(name, root, sprite));
+			benchmarks.add(createParseBenchmark(name, root));
+			benchmarks.add(createExternStringBenchmark(name, root, context));
+			benchmarks.add(createInternTokenListBenchmark(name, root));
+		}
+	}
+
+	private static Benchmark createInterpretBenchmark(String name, final FormulaElement root, final Sprite sprite) {
+		return new Benchmark(name + ": interpretRecursive") {
+			@Override
+			public Object runOperation() {
+				return root.interpretRecursive(sprite);
+			}
+		};
+	}
+
+	private static Benchmark createCompiledInterpretBenchmark(String name, FormulaElement root, final Sprite sprite) {
+		final Formula formula = new Formula(root);
+		return new Benchmark(name + ": Formula.interpretDouble") {
+			@Override
+			public Object runOperation() {
+				return formula.interpretDouble(sprite);
+			}
+		};
+	}
+
+	private static Benchmark createParseBenchmark(String name, FormulaElement root) {
+		final List<InternToken> internTokens = root.getInternTokenList();
+		return new Benchmark(name + ": parseFormula") {
+			@Override
+			public Object runOperation() {
+				return new InternFormulaParser(internTokens).parseFormula();
+			}
+		};
+	}
+
+	private static Benchmark createExternStringBenchmark(String name, FormulaElement root,
+			final ResourceStringContext context) {
+		final InternFormula internFormula = new InternFormula(root.getInternTokenList());
+		return new Benchmark(name + ": generateExternFormulaString") {
+			@Override
+			public Object runOperation() {
+				internFormula.generateExternFormulaStringAndInternExternMapping(context);
+				return internFormula.getExternFormulaString();
+			}
+		};
+	}
+
+	private static Benchmark createInternTokenListBenchmark(String name, final FormulaElement root) {
+		return new Benchmark(name + ": getInternTokenList") {
+			@Override
+			public Object runOperation() {
+				return root.getInternTokenList();
+			}
+		};
+	}
+
+	private static Sprite setUpProject() throws Exception {
+		// Project(Context, String) needs an Android device, so the variables container is set directly
+		Project project = new Project();
+		Field userVariablesField = Project.class.getDeclaredField("userVariables");
+		userVariablesField.setAccessible(true);
+		UserVariablesContainer userVariables = new UserVariablesContainer();
+		userVariablesField.set(project, userVariables);
+
+		Sprite sprite = new Sprite("benchmark");
+		project.addSprite(sprite);
+		ProjectManager.getInstance().setProject(project);
+		ProjectManager.getInstance().setCurrentSprite(sprite);
+
+		userVariables.addProjectUserVariable(FormulaCorpus.RANDOM_FROM_VARIABLE).setValue(RANDOM_FROM_VALUE);
+		userVariables.addProjectUserVariable(FormulaCorpus.RANDOM_TO_VARIABLE).setValue(RANDOM_TO_VALUE);
+		return sprite;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.Operators;
+import org.catrobat.catroid.formulaeditor.Sensors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class FormulaCorpus {
+	public static final String RANDOM_FROM_VARIABLE = "random from";
+	public static final String RANDOM_TO_VARIABLE = "random to";
+	public static final String[] USER_VARIABLES = { RANDOM_FROM_VARIABLE, RANDOM_TO_VARIABLE };
+
+	private static final int[] DEPTHS = { 1, 3, 5, 7 };
+	private static final int[] WIDTHS = { 2, 8, 32 };
+	private static final int WIDTH_TEST_DEPTH = 3;
+
+	private static final Operators[] OPERATORS = { Operators.PLUS, Operators.MULT, Operators.MINUS,
+			Operators.DIVIDE, Operators.SMALLER_THAN, Operators.LOGICAL_AND };
+	private static final Functions[] UNARY_FUNCTIONS = { Functions.SIN, Functions.SQRT, Functions.ABS,
+			Functions.ROUND };
+	private static final Functions[] BINARY_FUNCTIONS = { Functions.MAX, Functions.MIN };
+
+	// Suppress default constructor for noninstantiability
+	private FormulaCorpus() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Synthetic formulas of increasing depth (one nested term) and increasing width (a sum of terms of fixed
+	 * depth). All of them are deterministic and only depend on user variables and object sensors.
+	 */
+	public static Map<String, FormulaElement> createSyntheticCorpus() {
+		Map<String, FormulaElement> corpus = new LinkedHashMap<String, FormulaElement>();
+		for (int depth : DEPTHS) {
+			corpus.put("synthetic depth " + depth, createTerm(depth, 0));
+		}
+		for (int width : WIDTHS) {
+			corpus.put("synthetic depth " + WIDTH_TEST_DEPTH + " width " + width, createSum(width));
+		}
+		return corpus;
+	}
+
+	/**
+	 * The formulas built by StandardProjectHandler.createAndSaveStandardProject. The handler itself needs an
+	 * Android context and the file system, so the formula trees are rebuilt here the same way.
+	 */
+	public static Map<String, FormulaElement> createStandardProjectCorpus() {
+		Map<String, FormulaElement> corpus = new LinkedHashMap<String, FormulaElement>();
+		corpus.put("standard project number", createNumber("30"));
+		corpus.put("standard project random wait", createFunction(Functions.RAND,
+				new FormulaElement(ElementType.USER_VARIABLE, RANDOM_FROM_VARIABLE, null),
+				new FormulaElement(ElementType.USER_VARIABLE, RANDOM_TO_VARIABLE, null)));
+		corpus.put("standard project wait one or two seconds",
+				createFunction(Functions.RAND, createNumber("1"), createNumber("2")));
+		return corpus;
+	}
+
+	private static FormulaElement createSum(int width) {
+		FormulaElement sum = createTerm(WIDTH_TEST_DEPTH, 0);
+		for (int term = 1; term < width; term++) {
+			sum = createOperator(Operators.PLUS, sum, createTerm(WIDTH_TEST_DEPTH, term));
+		}
+		return sum;
+	}
+
+	private static FormulaElement createTerm(int depth, int seed) {
+		if (depth <= 1) {
+			return createLeaf(seed);
+		}
+		switch (seed % 4) {
+			case 0:
+				return createOperator(OPERATORS[(seed / 4) % OPERATORS.length], createTerm(depth - 1, seed + 1),
+						createTerm(depth - 1, seed + 2));
+			case 1:
+				return createFunction(UNARY_FUNCTIONS[(seed / 4) % UNARY_FUNCTIONS.length],
+						createTerm(depth - 1, seed + 1), null);
+			case 2:
+				return createFunction(BINARY_FUNCTIONS[(seed / 4) % BINARY_FUNCTIONS.length],
+						createTerm(depth - 1, seed + 1), createTerm(depth - 1, seed + 3));
+			default:
+				FormulaElement bracket = new FormulaElement(ElementType.BRACKET, null, null);
+				bracket.setRightChild(createOperator(Operators.MINUS, createTerm(depth - 1, seed + 1),
+						createTerm(depth - 1, seed + 2)));
+				return bracket;
+		}
+	}
+
+	private static FormulaElement createLeaf(int seed) {
+		switch (seed % 4) {
+			case 0:
+				return createNumber(Integer.toString(seed + 1));
+			case 1:
+				return createNumber((seed + 1) + ".5");
+			case 2:
+				return new FormulaElement(ElementType.USER_VARIABLE, USER_VARIABLES[seed % USER_VARIABLES.length],
+						null);
+			default:
+				return new FormulaElement(ElementType.SENSOR, Sensors.OBJECT_X.name(), null);
+		}
+	}
+
+	private static FormulaElement createNumber(String value) {
+		return new FormulaElement(ElementType.NUMBER, value, null);
+	}
+
+	private static FormulaElement createOperator(Operators operator, FormulaElement left, FormulaElement right) {
+		FormulaElement element = new FormulaElement(ElementType.OPERATOR, operator.name(), null);
+		element.setLeftChild(left);
+		element.setRightChild(right);
+		return element;
+	}
+
+	private static FormulaElement createFunction(Functions function, FormulaElement left, FormulaElement right) {
+		FormulaElement element = new FormulaElement(ElementType.FUNCTION, function.name(), null);
+		if (left != null) {
+			element.setLeftChild(left);
+		}
+		if (right != null) {
+			element.setRightChild(right);
+		}
+		return element;
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import org.catrobat.catroid.R;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.InternFormula;
+import org.catrobat.catroid.formulaeditor.InternToExternGenerator;
+import org.catrobat.catroid.formulaeditor.InternToken;
+import org.catrobat.catroid.formulaeditor.InternTokenType;
+import org.catrobat.catroid.formulaeditor.Operators;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Keystroke latency of the formula editor for growing formula lengths.
+ */
+public final class FormulaEditorBenchmarks {
+	private static final int[] FORMULA_LENGTHS = { 10, 50, 100, 250, 500 };
+
+	// Suppress default constructor for noninstantiability
+	private FormulaEditorBenchmarks() {
+		throw new AssertionError();
+	}
+
+	public static void addBenchmarks(List<Benchmark> benchmarks, ResourceStringContext context) {
+		for (int length : FORMULA_LENGTHS) {
+			benchmarks.add(createKeystrokeBenchmark(length, context));
+			benchmarks.add(createFullRegenerationBenchmark(length, context));
+		}
+	}
+
+	/**
+	 * One operation types a digit at the end of the formula and deletes it again, like a user would.
+	 */
+	private static Benchmark createKeystrokeBenchmark(int length, final ResourceStringContext context) {
+		final InternFormula internFormula = new InternFormula(createTokens(length));
+		internFormula.generateExternFormulaStringAndInternExternMapping(context);
+		internFormula.setCursorAndSelection(internFormula.getExternFormulaString().length() - 1, false);
+
+		return new Benchmark("editor " + length + " tokens: two keystrokes") {
+			@Override
+			public Object runOperation() {
+				internFormula.handleKeyInput(R.id.formula_editor_keyboard_1, context, null);
+				internFormula.handleKeyInput(R.id.formula_editor_edit_field_clear, context, null);
+				return internFormula.getExternFormulaString();
+			}
+		};
+	}
+
+	private static Benchmark createFullRegenerationBenchmark(int length, final ResourceStringContext context) {
+		final List<InternToken> internTokens = createTokens(length);
+
+		return new Benchmark("editor " + length + " tokens: full extern string regeneration") {
+			@Override
+			public Object runOperation() {
+				InternToExternGenerator generator = new InternToExternGenerator(context);
+				generator.generateExternStringAndMapping(internTokens);
+				return generator.getGeneratedExternFormulaString();
+			}
+		};
+	}
+
+	private static List<InternToken> createTokens(int length) {
+		List<InternToken> internTokens = new LinkedList<InternToken>();
+		while (internTokens.size() < length - 1) {
+			internTokens.add(new InternToken(InternTokenType.NUMBER, Integer.toString(internTokens.size())));
+			internTokens.add(new InternToken(InternTokenType.OPERATOR, Operators.PLUS.name()));
+			internTokens.add(new InternToken(InternTokenType.FUNCTION_NAME, Functions.SIN.name()));
+			internTokens.add(new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_OPEN));
+			internTokens.add(new InternToken(InternTokenType.NUMBER, "1.5"));
+			internTokens.add(new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_CLOSE));
+			internTokens.add(new InternToken(InternTokenType.OPERATOR, Operators.MULT.name()));
+		}
+		internTokens.add(new InternToken(InternTokenType.NUMBER, "42"));
+		return internTokens;
+	}
+}
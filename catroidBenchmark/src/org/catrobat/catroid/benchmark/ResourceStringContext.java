@@ -0,0 +1,67 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.benchmark;
+
+import android.content.Context;
+
+import org.catrobat.catroid.R;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Resolves string resources from the strings.xml of the app, like a device with the default locale would.
+ * Unknown resources resolve to their resource name.
+ */
+public class ResourceStringContext extends Context {
+	private final Map<Integer, String> strings = new HashMap<Integer, String>();
+
+	public ResourceStringContext(File stringsFile) throws Exception {
+		Map<String, String> stringsByName = new HashMap<String, String>();
+		if (stringsFile.exists()) {
+			Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stringsFile);
+			NodeList stringElements = document.getElementsByTagName("string");
+			for (int index = 0; index < stringElements.getLength(); index++) {
+				Element stringElement = (Element) stringElements.item(index);
+				stringsByName.put(stringElement.getAttribute("name"), stringElement.getTextContent());
+			}
+		}
+
+		for (Field field : R.string.class.getFields()) {
+			String value = stringsByName.get(field.getName());
+			strings.put(field.getInt(null), value == null ? field.getName() : value);
+		}
+	}
+
+	@Override
+	public String getString(int resId) {
+		return strings.get(resId);
+	}
+}
@@ -34,11 +34,12 @@ import java.util.List;
 public final class Utils {
 
 	public static final String[] ALL_DIRECTORIES = { ".", "../catroidTest", "../catroid", "../catroidCucumberTest",
-			"../catroidLegoNXTBTTest" };
+			"../catroidLegoNXTBTTest", "../catroidBenchmark" };
 	public static final String[] SOURCE_FILE_DIRECTORIES = { "src", "../catroid/src", "../catroidTest/src",
 			"../catroidCucumberTest/src", "../catroidLegoNXTBTTest/src" };
 	public static final String[] SOURCE_AND_RESOURCE_DIRECTORIES = { "src", "res", "../catroid/src", "../catroid/res",
-			"../catroidTest/src", "../catroidTest/res", "../catroidCucumberTest/src", "../catroidLegoNXTBTTest/src" };
+			"../catroidTest/src", "../catroidTest/res", "../catroidCucumberTest/src", "../catroidLegoNXTBTTest/src",
+			"../catroidBenchmark/src", "../catroidBenchmark/shims" };
 	public static final String[] TEST_FILE_DIRECTORIES = { "src", "../catroidTest/src", "../catroidCucumberTest/src" };
 	public static final String[] PRINT_STACK_TRACE_TEST_DIRECTORIES = { "src", "../catroid/src",
 			"../catroidCucumberTest/src", "../catroidLegoNXTBTTest/src" };
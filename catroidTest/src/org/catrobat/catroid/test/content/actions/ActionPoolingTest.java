@@ -0,0 +1,150 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.content.actions;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.actions.BroadcastNotifyAction;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+import org.catrobat.catroid.content.actions.IfLogicAction;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.stage.StageRuntime;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ActionPoolingTest extends AndroidTestCase {
+
+	private static final String MESSAGE = "poolingTest";
+
+	private Sprite sprite;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		sprite = new Sprite("testSprite");
+	}
+
+	public void testFinishedStartScriptIsReturnedToPool() {
+		Script script = new StartScript(sprite);
+		script.addBrick(new SetXBrick(sprite, 100));
+		sprite.addScript(script);
+		sprite.createStartScriptActionSequence();
+		Action startSequence = sprite.look.getActions().get(0);
+
+		int loopCounter = 0;
+		while (!sprite.look.getAllActionsAreFinished() && loopCounter++ < 20) {
+			sprite.look.act(1.0f);
+		}
+
+		assertEquals("Finished start script was not removed from the look", 0, sprite.look.getActions().size);
+		assertNull("Released start script still has an actor", startSequence.getActor());
+		assertSame("Released start script was not returned to its pool", startSequence,
+				ExtendedActions.scriptSequence(script));
+	}
+
+	public void testResetReleasesReferences() {
+		BroadcastEvent event = new BroadcastEvent();
+		event.raiseNumberOfReceivers();
+		BroadcastNotifyAction notifyAction = ExtendedActions.broadcastNotify(new StageRuntime(), event);
+		notifyAction.reset();
+
+		assertNull("Reset action still refers to its event", notifyAction.getEvent());
+		assertTrue("Reset action should finish without notifying", notifyAction.act(1.0f));
+		assertFalse("Reset action notified its former event", event.checkIfAllReceiversHaveFinished());
+
+		IfLogicAction ifLogicAction = ExtendedActions.ifLogc(sprite, new Formula(1), ExtendedActions.sequence(),
+				ExtendedActions.sequence());
+		ifLogicAction.reset();
+
+		assertNull("Reset action still refers to its if branch", ifLogicAction.getIfAction());
+		assertNull("Reset action still refers to its else branch", ifLogicAction.getElseAction());
+	}
+
+	public void testIfLogicActionIsReleasedWithItsBranches() {
+		SequenceAction ifSequence = ExtendedActions.sequence();
+		SequenceAction elseSequence = ExtendedActions.sequence();
+		IfLogicAction action = ExtendedActions.ifLogc(sprite, new Formula(1), ifSequence, elseSequence);
+		sprite.look.addAction(action);
+
+		sprite.look.clearActions();
+
+		assertNull("If action was not released", action.getActor());
+		assertNull("Released if action still refers to its if branch", action.getIfAction());
+		assertNull("Released if action still refers to its else branch", action.getElseAction());
+
+		// the branches only return to their pool if they were released before the if action was reset
+		List<Action> reusedSequences = Arrays.<Action> asList(ExtendedActions.sequence(), ExtendedActions.sequence());
+		assertTrue("If branch was not returned to its pool", reusedSequences.contains(ifSequence));
+		assertTrue("Else branch was not returned to its pool", reusedSequences.contains(elseSequence));
+	}
+
+	public void testReceiverSequenceIsReleasedOnceOnReload() {
+		StageRuntime stageRuntime = new StageRuntime();
+		sprite.look.setStageRuntime(stageRuntime);
+		ResetCountingSequenceAction receiverSequence = Actions.action(ResetCountingSequenceAction.class);
+		receiverSequence.resetCount = 0;
+		stageRuntime.addBroadcastReceiver(MESSAGE, receiverSequence, sprite.look);
+
+		stageRuntime.dispatchBroadcast(createEvent(BroadcastType.broadcast));
+		sprite.look.act(1.0f);
+		stageRuntime.dispatchBroadcast(createEvent(BroadcastType.broadcastWait));
+		sprite.look.act(1.0f);
+
+		stageRuntime.clear();
+		sprite.look.clearActions();
+
+		assertEquals("Receiver sequence was not returned to its pool exactly once", 1, receiverSequence.resetCount);
+		assertSame("Receiver sequence was not returned to its pool", receiverSequence,
+				Actions.action(ResetCountingSequenceAction.class));
+	}
+
+	private BroadcastEvent createEvent(BroadcastType type) {
+		BroadcastEvent event = new BroadcastEvent();
+		event.setSenderSprite(sprite);
+		event.setBroadcastMessage(MESSAGE);
+		event.setType(type);
+		event.setRun(type != BroadcastType.broadcastWait);
+		return event;
+	}
+
+	public static class ResetCountingSequenceAction extends SequenceAction {
+		private int resetCount = 0;
+
+		@Override
+		public void reset() {
+			super.reset();
+			resetCount++;
+		}
+	}
+}
@@ -68,6 +68,38 @@ public class BroadcastActionTest extends AndroidTestCase {
 		assertEquals("Simple broadcast failed", testPosition, (int) sprite.look.getXInUserInterfaceDimensionUnit());
 	}
 
+	public void testBroadcastRestartsAttachedReceiver() {
+		Sprite sprite = new Sprite("testSprite");
+		Script script = new StartScript(sprite);
+		String message = "restartTest";
+		script.addBrick(new BroadcastBrick(sprite, message));
+		script.addBrick(new BroadcastBrick(sprite, message));
+		sprite.addScript(script);
+
+		BroadcastScript broadcastScript = new BroadcastScript(sprite, message);
+		final int xMovement = 1;
+		broadcastScript.addBrick(new ChangeXByNBrick(sprite, xMovement));
+		sprite.addScript(broadcastScript);
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(sprite);
+		ProjectManager.getInstance().setProject(project);
+
+		sprite.createStartScriptActionSequence();
+
+		int loopCounter = 0;
+		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
+			for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
+				spriteOfList.look.act(1.0f);
+			}
+		}
+
+		// the finished start script has been released, so only the receiver is left
+		assertEquals("Receiver was added to the look more than once", 1, sprite.look.getActions().size);
+		assertEquals("Receiver was not restarted by the second broadcast", 2 * xMovement,
+				(int) sprite.look.getXInUserInterfaceDimensionUnit());
+	}
+
 	public void testBroadcastWait() {
 		Sprite sprite = new Sprite("spriteOne");
 		Script scriptWait = new StartScript(sprite);
@@ -0,0 +1,195 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.CompiledFormula;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.Operators;
+import org.catrobat.catroid.formulaeditor.Sensors;
+import org.catrobat.catroid.test.utils.TestUtils;
+
+public class CompiledFormulaTest extends AndroidTestCase {
+
+	private static final String PROJECT_USER_VARIABLE = "projectUserVariable";
+	private static final double USER_VARIABLE_VALUE = -0.0d;
+	private Sprite testSprite;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Project project = new Project(null, "testProject");
+		testSprite = new Sprite("testSprite");
+		project.addSprite(testSprite);
+		ProjectManager.getInstance().setProject(project);
+		project.getUserVariables().addProjectUserVariable(PROJECT_USER_VARIABLE).setValue(USER_VARIABLE_VALUE);
+		testSprite.look.setXInUserInterfaceDimensionUnit(12.3f);
+		testSprite.look.setSizeInUserInterfaceDimensionUnit(70f);
+	}
+
+	public void testArithmeticMatchesInterpreter() {
+		FormulaElement product = TestUtils.createOperatorElement(Operators.MULT, TestUtils.createNumberElement("2"),
+				TestUtils.createNumberElement("3.5"));
+		FormulaElement pi = TestUtils.createFunctionElement(Functions.PI, null, null);
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.PLUS, product, pi));
+
+		FormulaElement squareRoot = TestUtils.createFunctionElement(Functions.SQRT, TestUtils.createNumberElement("16"),
+				null);
+		FormulaElement power = TestUtils.createOperatorElement(Operators.POW, TestUtils.createNumberElement("2"),
+				TestUtils.createOperatorElement(Operators.MINUS, null, TestUtils.createNumberElement("3")));
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.DIVIDE, squareRoot, power));
+
+		FormulaElement negativeDividend = TestUtils.createOperatorElement(Operators.MINUS, null,
+				TestUtils.createNumberElement("7"));
+		assertCompiledEqualsInterpreted(TestUtils.createFunctionElement(Functions.MOD, negativeDividend,
+				TestUtils.createNumberElement("3")));
+	}
+
+	public void testDegeneratedValuesMatchInterpreter() {
+		String maximum = Double.toString(Double.MAX_VALUE);
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.PLUS,
+				TestUtils.createNumberElement(maximum), TestUtils.createNumberElement(maximum)));
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.DIVIDE,
+				TestUtils.createNumberElement("0"), TestUtils.createNumberElement("0")));
+		assertCompiledEqualsInterpreted(TestUtils.createFunctionElement(Functions.LN,
+				TestUtils.createNumberElement("0"), null));
+		assertCompiledEqualsInterpreted(TestUtils.createFunctionElement(Functions.SQRT,
+				TestUtils.createNumberElement("-1"), null));
+	}
+
+	public void testComparisonOfNegativeZeroMatchesInterpreter() {
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.EQUAL, createNegativeZero(),
+				TestUtils.createNumberElement("0")));
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.SMALLER_THAN, createNegativeZero(),
+				TestUtils.createNumberElement("0")));
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.LOGICAL_NOT, null,
+				createNegativeZero()));
+	}
+
+	public void testUndefinedOperatorsMatchInterpreter() {
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.PLUS, null,
+				TestUtils.createNumberElement("1.0")));
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.MOD,
+				TestUtils.createNumberElement("5"), TestUtils.createNumberElement("2")));
+		assertCompiledEqualsInterpreted(new FormulaElement(ElementType.NUMBER, "not a number", null), true);
+		assertCompiledEqualsInterpreted(new FormulaElement(ElementType.OPERATOR, "NOT_AN_OPERATOR", null, null,
+				TestUtils.createNumberElement("1")), true);
+	}
+
+	public void testObjectSensorsAndVariablesMatchInterpreter() {
+		FormulaElement objectX = new FormulaElement(ElementType.SENSOR, Sensors.OBJECT_X.name(), null);
+		FormulaElement objectSize = new FormulaElement(ElementType.SENSOR, Sensors.OBJECT_SIZE.name(), null);
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.PLUS, objectX, objectSize));
+
+		FormulaElement notExistingUserVariable = new FormulaElement(ElementType.USER_VARIABLE,
+				"notExistingUserVariable", null);
+		assertCompiledEqualsInterpreted(TestUtils.createOperatorElement(Operators.MULT, notExistingUserVariable,
+				TestUtils.createNumberElement("3")));
+	}
+
+	public void testRandomWithIntegerBoundsIsRounded() {
+		FormulaElement root = TestUtils.createFunctionElement(Functions.RAND, TestUtils.createNumberElement("1"),
+				TestUtils.createNumberElement("3"));
+		CompiledFormula compiledFormula = CompiledFormula.compile(root);
+		for (int index = 0; index < 100; index++) {
+			double value = compiledFormula.evaluate(testSprite);
+			assertEquals("Random value with integer bounds is not an integer", Math.floor(value), value);
+			assertTrue("Random value out of range", value >= 1d && value <= 3d);
+		}
+	}
+
+	public void testSetRootInvalidatesCompiledFormula() {
+		Formula formula = new Formula(1);
+		assertEquals("Formula interpretation is not as expected", 1d, formula.interpretDouble(testSprite));
+
+		formula.setRoot(TestUtils.createOperatorElement(Operators.PLUS, TestUtils.createNumberElement("1"),
+				TestUtils.createNumberElement("2")));
+		assertEquals("Compiled formula was not invalidated by setRoot", 3d, formula.interpretDouble(testSprite));
+		assertEquals("Formula interpretation is not as expected", 3, formula.interpretInteger(testSprite));
+	}
+
+	public void testConcurrentEvaluationMatchesInterpreter() throws InterruptedException {
+		FormulaElement userVariable = new FormulaElement(ElementType.USER_VARIABLE, PROJECT_USER_VARIABLE, null);
+		FormulaElement product = TestUtils.createOperatorElement(Operators.MULT, TestUtils.createNumberElement("2"),
+				TestUtils.createNumberElement("3.5"));
+		FormulaElement root = TestUtils.createOperatorElement(Operators.PLUS, userVariable, product);
+		final CompiledFormula compiledFormula = CompiledFormula.compile(root);
+		final double expectedValue = root.interpretRecursive(testSprite);
+		final int[] mismatchCount = new int[1];
+
+		Thread otherThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (int index = 0; index < 10000; index++) {
+					if (compiledFormula.evaluate(testSprite) != expectedValue) {
+						mismatchCount[0]++;
+					}
+				}
+			}
+		});
+		otherThread.start();
+		for (int index = 0; index < 10000; index++) {
+			assertEquals("Concurrent evaluation differs from interpreter", expectedValue,
+					compiledFormula.evaluate(testSprite));
+		}
+		otherThread.join();
+		assertEquals("Concurrent evaluation on the other thread differs from interpreter", 0, mismatchCount[0]);
+	}
+
+	private FormulaElement createNegativeZero() {
+		return new FormulaElement(ElementType.USER_VARIABLE, PROJECT_USER_VARIABLE, null);
+	}
+
+	private void assertCompiledEqualsInterpreted(FormulaElement root) {
+		assertCompiledEqualsInterpreted(root, false);
+	}
+
+	private void assertCompiledEqualsInterpreted(FormulaElement root, boolean expectException) {
+		Object interpreted;
+		Object compiled;
+		try {
+			interpreted = root.interpretRecursive(testSprite);
+		} catch (RuntimeException runtimeException) {
+			interpreted = runtimeException.getClass();
+		}
+		try {
+			compiled = CompiledFormula.compile(root).evaluate(testSprite);
+		} catch (RuntimeException runtimeException) {
+			compiled = runtimeException.getClass();
+		}
+		assertEquals("Unexpected interpretation outcome", expectException, interpreted instanceof Class);
+		if (interpreted instanceof Double) {
+			assertEquals("Compiled formula differs from interpreter",
+					Double.doubleToRawLongBits((Double) interpreted), Double.doubleToRawLongBits((Double) compiled));
+		} else {
+			assertEquals("Compiled formula differs from interpreter", interpreted, compiled);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.bricks.ChangeSizeByNBrick;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.FormulaOptimizer;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.InternToken;
+import org.catrobat.catroid.formulaeditor.Operators;
+import org.catrobat.catroid.formulaeditor.Sensors;
+import org.catrobat.catroid.test.utils.TestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+public class FormulaOptimizerTest extends AndroidTestCase {
+
+	private Sprite testSprite;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Project project = new Project(null, "testProject");
+		testSprite = new Sprite("testSprite");
+		project.addSprite(testSprite);
+		ProjectManager.getInstance().setProject(project);
+	}
+
+	public void testFoldConstantSubtree() {
+		FormulaElement product = TestUtils.createOperatorElement(Operators.MULT, TestUtils.createNumberElement("2"),
+				TestUtils.createNumberElement("3.5"));
+		FormulaElement root = TestUtils.createOperatorElement(Operators.PLUS, product,
+				TestUtils.createFunctionElement(Functions.PI, null, null));
+		List<InternToken> tokensBeforeFolding = root.getInternTokenList();
+
+		FormulaOptimizer optimizer = new FormulaOptimizer();
+		FormulaElement foldedRoot = optimizer.foldConstants(root);
+
+		assertEquals("Constant formula was not folded", ElementType.NUMBER, foldedRoot.getElementType());
+		assertEquals("Folded value differs from interpretation", root.interpretRecursive(null),
+				foldedRoot.interpretRecursive(null));
+		assertEquals("Wrong number of eliminated elements", 4, optimizer.getEliminatedElementCount());
+		assertEquals("Original formula tree was modified", tokensBeforeFolding.size(), root.getInternTokenList()
+				.size());
+	}
+
+	public void testSensorSubtreeIsNotFolded() {
+		FormulaElement squareRoot = TestUtils.createFunctionElement(Functions.SQRT, TestUtils.createNumberElement("16"),
+				null);
+		FormulaElement root = TestUtils.createOperatorElement(Operators.PLUS, squareRoot, new FormulaElement(
+				ElementType.SENSOR, Sensors.OBJECT_X.name(), null));
+
+		FormulaOptimizer optimizer = new FormulaOptimizer();
+		FormulaElement foldedRoot = optimizer.foldConstants(root);
+
+		assertEquals("Formula with sensor must not be folded", ElementType.OPERATOR, foldedRoot.getElementType());
+		assertEquals("Constant left subtree was not folded", ElementType.NUMBER, foldedRoot.getLeftChild()
+				.getElementType());
+		assertEquals("Wrong number of eliminated elements", 1, optimizer.getEliminatedElementCount());
+	}
+
+	public void testRandomIsNotFolded() {
+		FormulaElement sum = TestUtils.createOperatorElement(Operators.PLUS, TestUtils.createNumberElement("1"),
+				TestUtils.createNumberElement("0"));
+		FormulaElement root = TestUtils.createFunctionElement(Functions.RAND, sum, TestUtils.createNumberElement("3"));
+
+		FormulaOptimizer optimizer = new FormulaOptimizer();
+		FormulaElement foldedRoot = optimizer.foldConstants(root);
+
+		assertEquals("Random function must not be folded", ElementType.FUNCTION, foldedRoot.getElementType());
+		assertEquals("Random parameter must not be folded", ElementType.OPERATOR, foldedRoot.getLeftChild()
+				.getElementType());
+		assertEquals("Nothing should have been eliminated", 0, optimizer.getEliminatedElementCount());
+	}
+
+	public void testOptimizeProject() {
+		StartScript script = new StartScript(testSprite);
+		Formula constantFormula = new Formula(TestUtils.createOperatorElement(Operators.MULT,
+				TestUtils.createNumberElement("2"), TestUtils.createNumberElement("3")));
+		Formula variableFormula = new Formula(TestUtils.createOperatorElement(Operators.MULT,
+				TestUtils.createNumberElement("2"), new FormulaElement(ElementType.SENSOR, Sensors.OBJECT_SIZE.name(),
+						null)));
+		script.addBrick(new ChangeSizeByNBrick(testSprite, constantFormula));
+		script.addBrick(new SetXBrick(testSprite, variableFormula));
+		testSprite.addScript(script);
+
+		Map<Sprite, Integer> report = FormulaOptimizer.optimizeProject(ProjectManager.getInstance()
+				.getCurrentProject());
+
+		assertEquals("Wrong number of eliminated elements", Integer.valueOf(2), report.get(testSprite));
+		assertEquals("Optimized formula interpretation is not as expected", 6d,
+				constantFormula.interpretDouble(testSprite));
+		assertTrue("Persisted formula tree was modified", constantFormula.containsElement(ElementType.OPERATOR));
+	}
+}
@@ -23,10 +23,12 @@
 
 package org.catrobat.catroid.test.formulaeditor;
 
+import android.content.Context;
 import android.test.InstrumentationTestCase;
 
 import org.catrobat.catroid.formulaeditor.Formula;
 import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
 import org.catrobat.catroid.formulaeditor.Functions;
 import org.catrobat.catroid.formulaeditor.InternFormulaParser;
 import org.catrobat.catroid.formulaeditor.InternToken;
@@ -35,6 +37,7 @@ import org.catrobat.catroid.formulaeditor.Operators;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 
 public class FormulaTest extends InstrumentationTestCase {
 
@@ -107,4 +110,34 @@ public class FormulaTest extends InstrumentationTestCase {
 		formula = new Formula(parseTree);
 		assertFalse("Should NOT be a single number formula", formula.isSingleNumberFormula());
 	}
+
+	public void testDisplayStringIsCachedUntilRootChanges() {
+		Context context = getInstrumentation().getTargetContext();
+		FormulaElement sinElement = new FormulaElement(ElementType.FUNCTION, Functions.SIN.name(), null);
+		sinElement.setLeftChild(new FormulaElement(ElementType.NUMBER, "90", sinElement));
+		Formula formula = new Formula(sinElement);
+
+		String displayString = formula.getDisplayString(context);
+		assertSame("Display string should be cached", displayString, formula.getDisplayString(context));
+
+		formula.setDisplayText("preview");
+		assertEquals("Display text of the formula editor should be preferred", "preview",
+				formula.getDisplayString(context));
+		formula.setDisplayText(null);
+		assertSame("Discarded editor text should fall back to the cached display string", displayString,
+				formula.getDisplayString(context));
+
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			Locale.setDefault(Locale.GERMAN.equals(defaultLocale) ? Locale.ENGLISH : Locale.GERMAN);
+			assertNotSame("Display string should be regenerated for another locale", displayString,
+					formula.getDisplayString(context));
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+
+		formula.setRoot(new FormulaElement(ElementType.NUMBER, "42", null));
+		assertEquals("Display string should be regenerated after the root changed", "42 ",
+				formula.getDisplayString(context));
+	}
 }
@@ -45,6 +45,40 @@ import java.util.List;
 
 public class InternFormulaTest extends InstrumentationTestCase {
 
+	public void testIncrementalExternStringGeneration() {
+		ArrayList<InternToken> internTokens = new ArrayList<InternToken>();
+		internTokens.add(new InternToken(InternTokenType.FUNCTION_NAME, Functions.SIN.name()));
+		internTokens.add(new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_OPEN));
+		internTokens.add(new InternToken(InternTokenType.NUMBER, "1.5"));
+		internTokens.add(new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_CLOSE));
+		internTokens.add(new InternToken(InternTokenType.OPERATOR, Operators.PLUS.name()));
+		internTokens.add(new InternToken(InternTokenType.SENSOR, Sensors.OBJECT_X.name()));
+		InternFormula internFormula = new InternFormula(internTokens);
+		internFormula.generateExternFormulaStringAndInternExternMapping(getInstrumentation().getTargetContext());
+
+		internTokens.get(2).setTokenStringValue("2.25");
+		internTokens.add(4, new InternToken(InternTokenType.OPERATOR, Operators.MULT.name()));
+		internTokens.add(5, new InternToken(InternTokenType.NUMBER, "3"));
+		internTokens.remove(7);
+		internFormula.generateExternFormulaStringAndInternExternMapping(getInstrumentation().getTargetContext());
+
+		InternFormula freshInternFormula = new InternFormula(new ArrayList<InternToken>(internTokens));
+		freshInternFormula.generateExternFormulaStringAndInternExternMapping(getInstrumentation().getTargetContext());
+
+		assertEquals("Incrementally generated extern string differs", freshInternFormula.getExternFormulaString(),
+				internFormula.getExternFormulaString());
+		ExternInternRepresentationMapping mapping = (ExternInternRepresentationMapping) Reflection.getPrivateField(
+				internFormula, "externInternRepresentationMapping");
+		ExternInternRepresentationMapping freshMapping = (ExternInternRepresentationMapping) Reflection
+				.getPrivateField(freshInternFormula, "externInternRepresentationMapping");
+		for (int index = 0; index < internTokens.size(); index++) {
+			assertEquals("Wrong extern start index", freshMapping.getExternTokenStartIndex(index),
+					mapping.getExternTokenStartIndex(index));
+			assertEquals("Wrong extern end index", freshMapping.getExternTokenEndIndex(index),
+					mapping.getExternTokenEndIndex(index));
+		}
+	}
+
 	public void testInsertRightToCurrentToken() {
 
 		ArrayList<InternToken> internTokens = new ArrayList<InternToken>();
@@ -0,0 +1,137 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.hardware.SensorManager;
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.bricks.ChangeSizeByNBrick;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.Operators;
+import org.catrobat.catroid.formulaeditor.SensorPolicy;
+import org.catrobat.catroid.formulaeditor.Sensors;
+
+public class SensorPolicyTest extends AndroidTestCase {
+
+	private Project project;
+	private Sprite sprite;
+	private StartScript startScript;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = new Project(null, "testProject");
+		sprite = new Sprite("testSprite");
+		startScript = new StartScript(sprite);
+		sprite.addScript(startScript);
+		project.addSprite(sprite);
+	}
+
+	public void testProjectWithoutSensors() {
+		startScript.addBrick(new SetXBrick(sprite, new Formula(42)));
+		SensorPolicy policy = SensorPolicy.createForProject(project);
+
+		assertFalse("Acceleration registered", policy.usesAcceleration());
+		assertFalse("Rotation vector registered", policy.usesRotationVector());
+		assertFalse("Loudness registered", policy.usesLoudness());
+	}
+
+	public void testProjectWithInclination() {
+		FormulaElement root = new FormulaElement(ElementType.OPERATOR, Operators.PLUS.name(), null);
+		root.setLeftChild(new FormulaElement(ElementType.SENSOR, Sensors.X_INCLINATION.name(), root));
+		root.setRightChild(new FormulaElement(ElementType.SENSOR, Sensors.OBJECT_X.name(), root));
+		startScript.addBrick(new SetXBrick(sprite, new Formula(root)));
+		SensorPolicy policy = SensorPolicy.createForProject(project);
+
+		assertTrue("Inclination not found", policy.isUsed(Sensors.X_INCLINATION));
+		assertTrue("Rotation vector not registered", policy.usesRotationVector());
+		assertEquals("Wrong rotation vector rate", SensorManager.SENSOR_DELAY_GAME, policy.getRotationVectorRate());
+		assertFalse("Acceleration registered", policy.usesAcceleration());
+		assertFalse("Loudness registered", policy.usesLoudness());
+	}
+
+	public void testCompassIsSampledAtNormalRate() {
+		startScript.addBrick(new ChangeSizeByNBrick(sprite, new Formula(new FormulaElement(
+				ElementType.SENSOR, Sensors.COMPASS_DIRECTION.name(), null))));
+		SensorPolicy policy = SensorPolicy.createForProject(project);
+
+		assertTrue("Rotation vector not registered", policy.usesRotationVector());
+		assertEquals("Wrong rotation vector rate", SensorManager.SENSOR_DELAY_NORMAL,
+				policy.getRotationVectorRate());
+	}
+
+	public void testAllSensors() {
+		SensorPolicy policy = SensorPolicy.createForAllSensors();
+
+		assertTrue("Acceleration not registered", policy.usesAcceleration());
+		assertTrue("Rotation vector not registered", policy.usesRotationVector());
+		assertTrue("Loudness not registered", policy.usesLoudness());
+		assertEquals("Filtering enabled by default", SensorPolicy.NO_FILTERING, policy.getLowPassFilterFactor());
+	}
+
+	public void testInvalidLowPassFilterFactor() {
+		SensorPolicy policy = SensorPolicy.createForAllSensors();
+		policy.setLowPassFilterFactor(0.25f);
+		assertEquals("Wrong filter factor", 0.25f, policy.getLowPassFilterFactor());
+
+		float[] invalidFactors = { 0f, -0.5f, 1.01f, Float.NaN };
+		for (float invalidFactor : invalidFactors) {
+			try {
+				policy.setLowPassFilterFactor(invalidFactor);
+				fail("Filter factor " + invalidFactor + " accepted");
+			} catch (IllegalArgumentException expected) {
+				assertEquals("Filter factor changed", 0.25f, policy.getLowPassFilterFactor());
+			}
+		}
+	}
+
+	public void testNoFilteringPassesRawValues() {
+		SensorPolicy policy = SensorPolicy.createForAllSensors();
+
+		assertEquals("Raw value was filtered", 7.5f, policy.filter(-3f, 7.5f));
+		assertEquals("Raw value was filtered", -3f, policy.filter(7.5f, -3f));
+	}
+
+	public void testLowPassFilterStepResponse() {
+		SensorPolicy policy = SensorPolicy.createForAllSensors();
+		policy.setLowPassFilterFactor(0.25f);
+
+		float value = 0f;
+		for (int step = 1; step <= 10; step++) {
+			value = policy.filter(value, 1f);
+			float expectedValue = 1f - (float) Math.pow(0.75, step);
+			assertEquals("Wrong filtered value after step " + step, expectedValue, value, 1e-6f);
+		}
+
+		for (int step = 0; step < 200; step++) {
+			value = policy.filter(value, 1f);
+		}
+		assertEquals("Filtered value does not settle at the raw value", 1f, value, 1e-6f);
+	}
+}
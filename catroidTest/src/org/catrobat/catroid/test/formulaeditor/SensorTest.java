@@ -38,6 +38,7 @@ import org.catrobat.catroid.formulaeditor.FormulaElement;
 import org.catrobat.catroid.formulaeditor.InternFormulaParser;
 import org.catrobat.catroid.formulaeditor.InternToken;
 import org.catrobat.catroid.formulaeditor.InternTokenType;
+import org.catrobat.catroid.formulaeditor.SensorCustomEvent;
 import org.catrobat.catroid.formulaeditor.SensorHandler;
 import org.catrobat.catroid.formulaeditor.SensorLoudness;
 import org.catrobat.catroid.formulaeditor.Sensors;
@@ -47,6 +48,7 @@ import org.catrobat.catroid.test.utils.SimulatedSoundRecorder;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SensorTest extends InstrumentationTestCase {
 
@@ -88,6 +90,52 @@ public class SensorTest extends InstrumentationTestCase {
 		SensorHandler.stopSensorListeners();
 	}
 
+	public void testSensorValuesAreFrameScoped() {
+		SensorHandler.startSensorListener(getInstrumentation().getTargetContext());
+		SensorHandler.stopSensorListeners();
+		SensorHandler sensorHandler = (SensorHandler) Reflection.getPrivateField(SensorHandler.class, "instance");
+		Reflection.setPrivateField(sensorHandler, "sensorManager", new SimulatedSensorManager());
+
+		sensorHandler.onCustomSensorChanged(new SensorCustomEvent(Sensors.LOUDNESS, new float[] { 10f }));
+		assertEquals("Changed value not visible outside of a frame", 10d,
+				SensorHandler.getSensorValue(Sensors.LOUDNESS), delta);
+
+		SensorHandler.beginFrame();
+		assertEquals("Wrong value at start of frame", 10d, SensorHandler.getSensorValue(Sensors.LOUDNESS), delta);
+		sensorHandler.onCustomSensorChanged(new SensorCustomEvent(Sensors.LOUDNESS, new float[] { 20f }));
+		assertEquals("Value changed within a frame", 10d, SensorHandler.getSensorValue(Sensors.LOUDNESS), delta);
+
+		SensorHandler.beginFrame();
+		assertEquals("Changed value not visible in next frame", 20d, SensorHandler.getSensorValue(Sensors.LOUDNESS),
+				delta);
+		assertTrue("Loudness sample has no timestamp", SensorHandler.getSampleTimestamp(Sensors.LOUDNESS) > 0);
+	}
+
+	public void testFrameSnapshotIsSeenByOtherThreads() throws InterruptedException {
+		SensorHandler.startSensorListener(getInstrumentation().getTargetContext());
+		SensorHandler.stopSensorListeners();
+		SensorHandler sensorHandler = (SensorHandler) Reflection.getPrivateField(SensorHandler.class, "instance");
+		Reflection.setPrivateField(sensorHandler, "sensorManager", new SimulatedSensorManager());
+
+		sensorHandler.onCustomSensorChanged(new SensorCustomEvent(Sensors.LOUDNESS, new float[] { 10f }));
+		SensorHandler.beginFrame();
+		sensorHandler.onCustomSensorChanged(new SensorCustomEvent(Sensors.LOUDNESS, new float[] { 20f }));
+
+		final double[] valueSeenByOtherThread = new double[1];
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				valueSeenByOtherThread[0] = SensorHandler.getSensorValue(Sensors.LOUDNESS);
+			}
+		});
+		reader.start();
+		reader.join();
+
+		assertEquals("Other thread did not see the snapshot of the frame", 10d, valueSeenByOtherThread[0], delta);
+		assertEquals("Other thread changed the snapshot of the frame", 10d,
+				SensorHandler.getSensorValue(Sensors.LOUDNESS), delta);
+	}
+
 	public void testSensors() throws SecurityException, IllegalArgumentException, NoSuchFieldException,
 			IllegalAccessException {
 
@@ -150,14 +198,18 @@ public class SensorTest extends InstrumentationTestCase {
 			}
 		}
 
-		float expectedLoudness = (Float) Reflection.getPrivateField(sensorHandler, "loudness");
+		AtomicReference<?> latestSample = (AtomicReference<?>) Reflection.getPrivateField(sensorHandler,
+				"latestSample");
+		Object sample = latestSample.get();
+
+		float expectedLoudness = (Float) Reflection.getPrivateField(sample, "loudness");
 
-		float expectedXAcceleration = (Float) Reflection.getPrivateField(sensorHandler, "linearAcceleartionX");
-		float expectedYAcceleration = (Float) Reflection.getPrivateField(sensorHandler, "linearAcceleartionY");
-		float expectedZAcceleration = (Float) Reflection.getPrivateField(sensorHandler, "linearAcceleartionZ");
+		float expectedXAcceleration = (Float) Reflection.getPrivateField(sample, "linearAccelerationX");
+		float expectedYAcceleration = (Float) Reflection.getPrivateField(sample, "linearAccelerationY");
+		float expectedZAcceleration = (Float) Reflection.getPrivateField(sample, "linearAccelerationZ");
 
 		float[] rotationMatrix = new float[16];
-		float[] rotationVector = (float[]) Reflection.getPrivateField(sensorHandler, "rotationVector");
+		float[] rotationVector = (float[]) Reflection.getPrivateField(sample, "rotationVector");
 		float[] orientations = new float[3];
 
 		android.hardware.SensorManager.getRotationMatrixFromVector(rotationMatrix, rotationVector);
@@ -0,0 +1,134 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.UserVariable;
+import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+import org.catrobat.catroid.test.utils.Reflection;
+
+import java.util.List;
+import java.util.Map;
+
+public class UserVariablesContainerTest extends AndroidTestCase {
+
+	private static final String PROJECT_VARIABLE_NAME = "projectVariable";
+	private static final String SPRITE_VARIABLE_NAME = "spriteVariable";
+
+	private UserVariablesContainer container;
+	private Sprite firstSprite;
+	private Sprite secondSprite;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Project project = new Project(null, "testProject");
+		firstSprite = new Sprite("firstSprite");
+		secondSprite = new Sprite("secondSprite");
+		project.addSprite(firstSprite);
+		project.addSprite(secondSprite);
+		ProjectManager.getInstance().setProject(project);
+		ProjectManager.getInstance().setCurrentSprite(firstSprite);
+		container = project.getUserVariables();
+	}
+
+	public void testLookupPrefersSpriteVariables() {
+		UserVariable projectVariable = container.addProjectUserVariable(PROJECT_VARIABLE_NAME);
+		UserVariable spriteVariable = container.addSpriteUserVariableToSprite(firstSprite, PROJECT_VARIABLE_NAME);
+
+		assertSame("Sprite variable not preferred", spriteVariable,
+				container.getUserVariable(PROJECT_VARIABLE_NAME, firstSprite));
+		assertSame("Project variable not found", projectVariable,
+				container.getUserVariable(PROJECT_VARIABLE_NAME, secondSprite));
+		assertNull("Unknown variable found", container.getUserVariable("unknown", firstSprite));
+	}
+
+	@SuppressWarnings("unchecked")
+	public void testLookupHasNoSideEffects() {
+		container.addProjectUserVariable(PROJECT_VARIABLE_NAME);
+		Map<Sprite, List<UserVariable>> spriteVariables = (Map<Sprite, List<UserVariable>>) Reflection
+				.getPrivateField(UserVariablesContainer.class, container, "spriteVariables");
+
+		container.getUserVariable(PROJECT_VARIABLE_NAME, secondSprite);
+		container.getUserVariable(SPRITE_VARIABLE_NAME, secondSprite);
+		assertFalse("Lookup created a variable list", spriteVariables.containsKey(secondSprite));
+	}
+
+	public void testValuesAreStoredPerVariable() {
+		UserVariable projectVariable = container.addProjectUserVariable(PROJECT_VARIABLE_NAME);
+		UserVariable firstSpriteVariable = container.addSpriteUserVariableToSprite(firstSprite, SPRITE_VARIABLE_NAME);
+		UserVariable secondSpriteVariable = container
+				.addSpriteUserVariableToSprite(secondSprite, SPRITE_VARIABLE_NAME);
+
+		projectVariable.setValue(1.5);
+		firstSpriteVariable.setValue(-2.0);
+		secondSpriteVariable.setValue(42.0);
+
+		assertEquals("Wrong project variable value", 1.5, projectVariable.getValue());
+		assertEquals("Wrong sprite variable value", -2.0,
+				container.getUserVariable(SPRITE_VARIABLE_NAME, firstSprite).getValue());
+		assertEquals("Wrong sprite variable value", 42.0,
+				container.getUserVariable(SPRITE_VARIABLE_NAME, secondSprite).getValue());
+	}
+
+	public void testResetAllUserVariables() {
+		UserVariable projectVariable = container.addProjectUserVariable(PROJECT_VARIABLE_NAME);
+		UserVariable spriteVariable = container.addSpriteUserVariableToSprite(secondSprite, SPRITE_VARIABLE_NAME);
+		projectVariable.setValue(3.0);
+		spriteVariable.setValue(4.0);
+
+		container.resetAllUserVariables();
+
+		assertEquals("Project variable not reset", 0.0, projectVariable.getValue());
+		assertEquals("Sprite variable not reset", 0.0, spriteVariable.getValue());
+	}
+
+	public void testDeleteKeepsValuesOfRemainingVariables() {
+		UserVariable projectVariable = container.addProjectUserVariable(PROJECT_VARIABLE_NAME);
+		UserVariable spriteVariable = container.addSpriteUserVariableToSprite(firstSprite, SPRITE_VARIABLE_NAME);
+		projectVariable.setValue(7.0);
+		spriteVariable.setValue(8.0);
+
+		container.deleteUserVariableByName(SPRITE_VARIABLE_NAME);
+
+		assertNull("Deleted variable still found", container.getUserVariable(SPRITE_VARIABLE_NAME, firstSprite));
+		assertEquals("Value of deleted variable lost", 8.0, spriteVariable.getValue());
+		assertEquals("Value of remaining variable lost", 7.0,
+				container.getUserVariable(PROJECT_VARIABLE_NAME, firstSprite).getValue());
+
+		container.resetAllUserVariables();
+		assertEquals("Deleted variable was reset", 8.0, spriteVariable.getValue());
+	}
+
+	public void testCleanVariableListForSprite() {
+		container.addSpriteUserVariableToSprite(secondSprite, SPRITE_VARIABLE_NAME).setValue(5.0);
+		container.cleanVariableListForSprite(secondSprite);
+
+		assertNull("Variable of cleaned sprite still found",
+				container.getUserVariable(SPRITE_VARIABLE_NAME, secondSprite));
+	}
+}
@@ -91,6 +91,27 @@ public class UserVariablesInterpretationTest extends AndroidTestCase {
 		assertEquals("SpriteUserVariable didnt reset", USER_VARIABLE_RESET, userVariable.interpretDouble(firstSprite));
 	}
 
+	public void testUserVariableBindingIsInvalidatedByContainerChanges() {
+		UserVariablesContainer userVariableContainer = ProjectManager.getInstance().getCurrentProject()
+				.getUserVariables();
+		Formula userVariable = getUservariableByName(PROJECT_USER_VARIABLE);
+		assertEquals("Formula interpretation of ProjectUserVariable is not as expected", USER_VARIABLE_VALUE,
+				userVariable.interpretDouble(firstSprite));
+
+		userVariableContainer.addSpriteUserVariableToSprite(firstSprite, PROJECT_USER_VARIABLE).setValue(
+				USER_VARIABLE_VALUE2);
+		assertEquals("Sprite variable does not hide project variable after binding", USER_VARIABLE_VALUE2,
+				userVariable.interpretDouble(firstSprite));
+		assertEquals("Binding of other sprite was not resolved again", USER_VARIABLE_VALUE,
+				userVariable.interpretDouble(testSprite));
+
+		ProjectManager.getInstance().setCurrentSprite(firstSprite);
+		userVariableContainer.deleteUserVariableByName(PROJECT_USER_VARIABLE);
+		assertEquals("Deleted user variable is still bound",
+				FormulaElement.NOT_EXISTING_USER_VARIABLE_INTERPRETATION_VALUE,
+				userVariable.interpretDouble(firstSprite));
+	}
+
 	public void testNotExistingUservariable() {
 
 		List<InternToken> internTokenList = new LinkedList<InternToken>();
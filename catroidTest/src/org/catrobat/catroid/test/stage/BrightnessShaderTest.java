@@ -0,0 +1,68 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.graphics.Color;
+
+import org.catrobat.catroid.stage.BrightnessShader;
+
+public class BrightnessShaderTest extends AndroidTestCase {
+
+	public void testEncodeBrightness() {
+		assertEquals("Wrong encoding of no brightness", 0, getChannelValue(0f));
+		assertEquals("Wrong encoding of unchanged brightness", BrightnessShader.NEUTRAL_CHANNEL_VALUE,
+				getChannelValue(1f));
+		assertEquals("Wrong encoding of maximum brightness", 2 * BrightnessShader.NEUTRAL_CHANNEL_VALUE,
+				getChannelValue(BrightnessShader.MAXIMUM_BRIGHTNESS));
+	}
+
+	public void testUnchangedBrightnessIsDecodedExactly() {
+		assertEquals("Unchanged brightness should survive the color channel byte", 1f,
+				BrightnessShader.decodeBrightness(getChannelValue(1f)));
+		assertEquals("Unchanged brightness should survive the color channel byte", 1f,
+				BrightnessShader.decodeBrightness(getPackedRedChannelValue(BrightnessShader.encodeBrightness(1f))));
+	}
+
+	public void testChannelValuesRoundTrip() {
+		for (int channelValue = 0; channelValue <= 2 * BrightnessShader.NEUTRAL_CHANNEL_VALUE; channelValue++) {
+			float brightness = BrightnessShader.decodeBrightness(channelValue);
+			assertEquals("Wrong channel value after decoding and encoding", channelValue, getChannelValue(brightness));
+		}
+	}
+
+	public void testEncodedBrightnessIsClamped() {
+		assertEquals("Negative brightness should be clamped", 0, getChannelValue(-1f));
+		assertEquals("Too high brightness should be clamped", 2 * BrightnessShader.NEUTRAL_CHANNEL_VALUE,
+				getChannelValue(5f));
+	}
+
+	private static int getChannelValue(float brightness) {
+		return (int) (255 * BrightnessShader.encodeBrightness(brightness));
+	}
+
+	private static int getPackedRedChannelValue(float red) {
+		return Float.floatToRawIntBits(new Color(red, 0f, 0f, 1f).toFloatBits()) & 0xff;
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.stage.FixedTimestepScheduler;
+
+public class FixedTimestepSchedulerTest extends AndroidTestCase {
+
+	public void testTicksDoNotDependOnFrameRate() {
+		FixedTimestepScheduler fastDevice = new FixedTimestepScheduler(60);
+		FixedTimestepScheduler slowDevice = new FixedTimestepScheduler(60);
+
+		int fastDeviceTicks = 0;
+		for (int frame = 0; frame < 120; frame++) {
+			fastDeviceTicks += fastDevice.advance(1f / 120f);
+		}
+		int slowDeviceTicks = 0;
+		for (int frame = 0; frame < 20; frame++) {
+			slowDeviceTicks += slowDevice.advance(1f / 20f);
+		}
+
+		assertEquals("Wrong number of ticks for one second at 120 fps", 60, fastDeviceTicks);
+		assertEquals("Wrong number of ticks for one second at 20 fps", 60, slowDeviceTicks);
+		assertEquals("Tick duration is wrong", 1f / 60f, fastDevice.getTickDuration());
+	}
+
+	public void testLeftoverTimeIsCarriedToNextFrame() {
+		FixedTimestepScheduler scheduler = new FixedTimestepScheduler(10);
+
+		assertEquals("No tick expected before a full tick elapsed", 0, scheduler.advance(0.06f));
+		assertEquals("Leftover time should complete a tick", 1, scheduler.advance(0.06f));
+		assertEquals("Wrong number of ticks", 2, scheduler.advance(0.18f));
+	}
+
+	public void testSurplusTicksAreDropped() {
+		FixedTimestepScheduler scheduler = new FixedTimestepScheduler(60, 4);
+
+		assertEquals("Ticks per frame should be capped", 4, scheduler.advance(1f));
+		assertEquals("Dropped ticks are not counted", 56, scheduler.getDroppedTickCount());
+		assertEquals("Dropped ticks should not be caught up", 1, scheduler.advance(1f / 60f));
+		assertEquals("Wrong number of run ticks", 5, scheduler.getTickCount());
+	}
+
+	public void testResetDiscardsAccumulatedTime() {
+		FixedTimestepScheduler scheduler = new FixedTimestepScheduler(10);
+
+		scheduler.advance(0.09f);
+		scheduler.reset();
+		assertEquals("Accumulated time should be discarded", 0, scheduler.advance(0.05f));
+	}
+
+	public void testInvalidTickRate() {
+		try {
+			new FixedTimestepScheduler(0);
+			fail("Tick rate of 0 should not be accepted");
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			new FixedTimestepScheduler(60, 0);
+			fail("Maximum of 0 ticks per frame should not be accepted");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
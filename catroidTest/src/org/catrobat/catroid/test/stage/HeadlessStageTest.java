@@ -0,0 +1,137 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.content.BroadcastScript;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.bricks.BroadcastBrick;
+import org.catrobat.catroid.content.bricks.SetVariableBrick;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.content.bricks.WaitBrick;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.UserVariable;
+import org.catrobat.catroid.stage.HeadlessStage;
+import org.catrobat.catroid.stage.HeadlessStage.TraceEvent;
+import org.catrobat.catroid.uitest.util.UiTestUtils;
+
+import java.util.List;
+
+public class HeadlessStageTest extends AndroidTestCase {
+
+	private static final String MESSAGE = "moved";
+	private static final String VARIABLE_NAME = "result";
+
+	private HeadlessStage headlessStage;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		UserVariable userVariable = project.getUserVariables().addProjectUserVariable(VARIABLE_NAME);
+
+		Sprite cat = new Sprite("cat");
+		Script startScript = new StartScript(cat);
+		startScript.addBrick(new SetXBrick(cat, 100));
+		startScript.addBrick(new WaitBrick(cat, 500));
+		startScript.addBrick(new BroadcastBrick(cat, MESSAGE));
+		cat.addScript(startScript);
+		project.addSprite(cat);
+
+		Sprite dog = new Sprite("dog");
+		Script broadcastScript = new BroadcastScript(dog, MESSAGE);
+		broadcastScript.addBrick(new SetVariableBrick(dog, new Formula(42), userVariable));
+		dog.addScript(broadcastScript);
+		project.addSprite(dog);
+
+		headlessStage = new HeadlessStage(project, 60);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		headlessStage.finish();
+		super.tearDown();
+	}
+
+	public void testProjectRunsWithVirtualClock() {
+		headlessStage.start();
+		assertTrue("Actions did not finish", headlessStage.runUntilIdle(600));
+
+		Sprite cat = headlessStage.getSprite("cat");
+		assertEquals("Wrong x position", 100f, cat.look.getXInUserInterfaceDimensionUnit());
+		assertEquals("Wrong variable value", 42d, headlessStage.getVariableValue(VARIABLE_NAME, cat));
+		assertTrue("Wait brick finished too early", headlessStage.getElapsedTime() >= 0.5f);
+	}
+
+	public void testTraceRecordsChanges() {
+		headlessStage.start();
+		headlessStage.runUntilIdle(600);
+
+		List<TraceEvent> trace = headlessStage.getTrace();
+		TraceEvent moved = findEvent(trace, TraceEvent.Type.MOVED);
+		TraceEvent broadcast = findEvent(trace, TraceEvent.Type.BROADCAST);
+		TraceEvent variableChanged = findEvent(trace, TraceEvent.Type.VARIABLE_CHANGED);
+
+		assertNotNull("Movement was not traced", moved);
+		assertEquals("Wrong sprite moved", "cat", moved.getSpriteName());
+		assertEquals("Movement should happen in the first tick", 1, moved.getTick());
+
+		assertNotNull("Broadcast was not traced", broadcast);
+		assertEquals("Wrong broadcast sender", "cat", broadcast.getSpriteName());
+		assertEquals("Wrong broadcast message", MESSAGE, broadcast.getDetail());
+		assertTrue("Broadcast was sent before the wait brick finished", broadcast.getTick() >= 30);
+
+		assertNotNull("Variable change was not traced", variableChanged);
+		assertEquals("Wrong variable change", VARIABLE_NAME + "=42.0", variableChanged.getDetail());
+		assertTrue("Variable changed before the broadcast", variableChanged.getTick() >= broadcast.getTick());
+
+		int broadcastCount = 0;
+		for (TraceEvent event : trace) {
+			if (event.getType() == TraceEvent.Type.BROADCAST) {
+				broadcastCount++;
+			}
+		}
+		assertEquals("Broadcast should be traced once", 1, broadcastCount);
+	}
+
+	public void testTickBeforeStartFails() {
+		try {
+			headlessStage.tick();
+			fail("Ticking a headless stage which has not been started should fail");
+		} catch (IllegalStateException expected) {
+		}
+	}
+
+	private TraceEvent findEvent(List<TraceEvent> trace, TraceEvent.Type type) {
+		for (TraceEvent event : trace) {
+			if (event.getType() == type) {
+				return event;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.catrobat.catroid.stage.LookHitMask;
+
+public class LookHitMaskTest extends AndroidTestCase {
+
+	private static final int WIDTH = 70;
+	private static final int HEIGHT = 3;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		GdxNativesLoader.load();
+	}
+
+	public void testRgbaPixmap() {
+		Pixmap pixmap = new Pixmap(WIDTH, HEIGHT, Format.RGBA8888);
+		pixmap.setColor(0f, 0f, 0f, 0f);
+		pixmap.fill();
+		pixmap.drawPixel(0, 0, 0xFF0000FF);
+		pixmap.drawPixel(WIDTH - 1, HEIGHT - 1, 0x00FF00FF);
+		pixmap.drawPixel(1, 1, 0x0000FF00 | LookHitMask.ALPHA_THRESHOLD);
+		pixmap.drawPixel(2, 1, 0x0000FF00 | (LookHitMask.ALPHA_THRESHOLD + 1));
+
+		LookHitMask hitMask = LookHitMask.create(pixmap);
+		pixmap.dispose();
+
+		assertEquals("Wrong width", WIDTH, hitMask.getWidth());
+		assertEquals("Wrong height", HEIGHT, hitMask.getHeight());
+		assertTrue("Opaque pixel in the first word", hitMask.isOpaque(0, 0));
+		assertTrue("Opaque pixel in the last word", hitMask.isOpaque(WIDTH - 1, HEIGHT - 1));
+		assertFalse("Transparent pixel", hitMask.isOpaque(1, 0));
+		assertFalse("Pixel at the alpha threshold should not be hit", hitMask.isOpaque(1, 1));
+		assertTrue("Pixel above the alpha threshold should be hit", hitMask.isOpaque(2, 1));
+		assertFalse("Pixel outside the mask", hitMask.isOpaque(WIDTH, 0));
+		assertFalse("Pixel outside the mask", hitMask.isOpaque(0, -1));
+	}
+
+	public void testMaskUsesOneBitPerPixel() {
+		Pixmap pixmap = new Pixmap(WIDTH, HEIGHT, Format.RGBA8888);
+		LookHitMask hitMask = LookHitMask.create(pixmap);
+
+		assertTrue("Hit mask should be much smaller than the pixmap",
+				hitMask.getSizeInBytes() * 16 <= pixmap.getPixels().capacity());
+		pixmap.dispose();
+	}
+
+	public void testPixmapWithoutAlphaIsOpaque() {
+		Pixmap pixmap = new Pixmap(WIDTH, HEIGHT, Format.RGB888);
+		pixmap.setColor(0f, 0f, 0f, 1f);
+		pixmap.fill();
+
+		LookHitMask hitMask = LookHitMask.create(pixmap);
+		pixmap.dispose();
+
+		assertTrue("Pixmap without alpha channel should be opaque", hitMask.isOpaque(WIDTH / 2, HEIGHT / 2));
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.InstrumentationTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.stage.LookPreloader;
+import org.catrobat.catroid.stage.LookPreloader.OnLookPreloadListener;
+import org.catrobat.catroid.stage.LookTextureCache;
+import org.catrobat.catroid.test.R;
+import org.catrobat.catroid.test.utils.TestUtils;
+import org.catrobat.catroid.utils.UtilFile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LookPreloaderTest extends InstrumentationTestCase {
+
+	private static final String PROJECT_NAME = "lookPreloaderTestProject";
+	private static final long TIMEOUT_SECONDS = 10;
+
+	private Project project;
+	private LookData catLookData;
+	private LookData dogLookData;
+	private LookData backgroundLookData;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		deleteProjectDirectory();
+
+		project = new Project(getInstrumentation().getTargetContext(), PROJECT_NAME);
+		StorageHandler.getInstance().saveProject(project);
+		ProjectManager.getInstance().setProject(project);
+
+		File iconImage = TestUtils.saveFileToProject(PROJECT_NAME, "icon.png", R.raw.icon, getInstrumentation()
+				.getContext(), TestUtils.TYPE_IMAGE_FILE);
+		File redImage = TestUtils.saveFileToProject(PROJECT_NAME, "red.png", R.raw.red_quad, getInstrumentation()
+				.getContext(), TestUtils.TYPE_IMAGE_FILE);
+
+		catLookData = createLookData("cat", iconImage);
+		dogLookData = createLookData("dog", iconImage);
+		backgroundLookData = createLookData("background", redImage);
+
+		addSprite("cat", catLookData);
+		addSprite("dog", dogLookData);
+		addSprite("background", backgroundLookData);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		LookTextureCache.getInstance().clear();
+		deleteProjectDirectory();
+		super.tearDown();
+	}
+
+	public void testLooksSharingAnImageAreDecodedOnce() throws InterruptedException {
+		LookPreloader lookPreloader = new LookPreloader(project.getSpriteList());
+		assertEquals("Looks sharing an image file should be counted once", 2, lookPreloader.getTotalImageCount());
+
+		final List<Integer> progress = new ArrayList<Integer>();
+		final CountDownLatch finished = new CountDownLatch(1);
+		lookPreloader.start(new OnLookPreloadListener() {
+			@Override
+			public void onLookPreloadProgress(int decodedImages, int totalImages) {
+				progress.add(decodedImages);
+			}
+
+			@Override
+			public void onLookPreloadFinished() {
+				finished.countDown();
+			}
+		});
+
+		assertTrue("Preloading did not finish", finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertEquals("Wrong number of progress updates", 2, progress.size());
+		assertEquals("Last progress update should report all images", Integer.valueOf(2), progress.get(1));
+		LookTextureCache lookTextureCache = LookTextureCache.getInstance();
+		assertTrue("Cat look was not preloaded", lookTextureCache.contains(catLookData.getAbsolutePath()));
+		assertTrue("Background look was not preloaded",
+				lookTextureCache.contains(backgroundLookData.getAbsolutePath()));
+
+		lookTextureCache.resetStatistics();
+		assertSame("Looks sharing an image file should share the pixmap", catLookData.getPixmap(),
+				dogLookData.getPixmap());
+		assertEquals("Preloaded pixmaps should not be decoded again", 0, lookTextureCache.getMissCount());
+	}
+
+	public void testPreloadedPixmapSurvivesReset() throws InterruptedException {
+		LookPreloader lookPreloader = new LookPreloader(project.getSpriteList());
+		final CountDownLatch finished = new CountDownLatch(1);
+		lookPreloader.start(new OnLookPreloadListener() {
+			@Override
+			public void onLookPreloadProgress(int decodedImages, int totalImages) {
+			}
+
+			@Override
+			public void onLookPreloadFinished() {
+				finished.countDown();
+			}
+		});
+		assertTrue("Preloading did not finish", finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+		backgroundLookData.resetLookData();
+		assertTrue("Reset should keep the preloaded pixmap",
+				LookTextureCache.getInstance().contains(backgroundLookData.getAbsolutePath()));
+		assertEquals("Preloaded pixmap has wrong width", backgroundLookData.getMeasure()[0], backgroundLookData
+				.getPixmap().getWidth());
+	}
+
+	public void testBrokenImageDoesNotStopPreloading() throws IOException, InterruptedException {
+		File brokenImage = new File(new File(catLookData.getAbsolutePath()).getParentFile(), "broken.png");
+		FileOutputStream outputStream = new FileOutputStream(brokenImage);
+		outputStream.write(new byte[] { 1, 2, 3, 4 });
+		outputStream.close();
+		LookData brokenLookData = createLookData("broken", brokenImage);
+		addSprite("broken", brokenLookData);
+
+		LookPreloader lookPreloader = new LookPreloader(project.getSpriteList());
+		final CountDownLatch finished = new CountDownLatch(1);
+		lookPreloader.start(new OnLookPreloadListener() {
+			@Override
+			public void onLookPreloadProgress(int decodedImages, int totalImages) {
+			}
+
+			@Override
+			public void onLookPreloadFinished() {
+				finished.countDown();
+			}
+		});
+
+		assertTrue("Preloading did not finish", finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertEquals("Broken image should be counted", 3, lookPreloader.getDecodedImageCount());
+		assertFalse("Broken image should be left for decoding on demand",
+				LookTextureCache.getInstance().contains(brokenLookData.getAbsolutePath()));
+	}
+
+	public void testProjectWithoutLooksFinishesImmediately() {
+		LookPreloader lookPreloader = new LookPreloader(new ArrayList<Sprite>());
+		final boolean[] finished = { false };
+		lookPreloader.start(new OnLookPreloadListener() {
+			@Override
+			public void onLookPreloadProgress(int decodedImages, int totalImages) {
+			}
+
+			@Override
+			public void onLookPreloadFinished() {
+				finished[0] = true;
+			}
+		});
+		assertTrue("Preloading without looks should finish right away", finished[0]);
+	}
+
+	private LookData createLookData(String name, File image) {
+		LookData lookData = new LookData();
+		lookData.setLookName(name);
+		lookData.setLookFilename(image.getName());
+		return lookData;
+	}
+
+	private void addSprite(String name, LookData lookData) {
+		Sprite sprite = new Sprite(name);
+		sprite.getLookDataList().add(lookData);
+		project.addSprite(sprite);
+	}
+
+	private void deleteProjectDirectory() {
+		File projectDirectory = new File(Constants.DEFAULT_ROOT + "/" + PROJECT_NAME);
+		if (projectDirectory.exists()) {
+			UtilFile.deleteDirectory(projectDirectory);
+		}
+	}
+}
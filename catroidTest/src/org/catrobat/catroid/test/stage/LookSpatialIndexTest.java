@@ -0,0 +1,143 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.scenes.scene2d.Group;
+
+import org.catrobat.catroid.content.Look;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.stage.LookSpatialIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LookSpatialIndexTest extends AndroidTestCase {
+
+	private static final float CELL_SIZE = 100f;
+
+	private LookSpatialIndex spatialIndex;
+	private Group group;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		spatialIndex = new LookSpatialIndex(CELL_SIZE);
+		group = new Group();
+	}
+
+	public void testLooksAreReturnedTopFirst() {
+		Look bottom = createLook("bottom", 0f, 0f, 50f, 50f);
+		Look top = createLook("top", 25f, 25f, 50f, 50f);
+
+		List<Look> looks = spatialIndex.getLooksAt(30f, 30f);
+		assertEquals("Both looks should be found", 2, looks.size());
+		assertSame("Topmost look should come first", top, looks.get(0));
+		assertSame("Bottom look should come last", bottom, looks.get(1));
+
+		bottom.setZIndex(1);
+		looks = spatialIndex.getLooksAt(30f, 30f);
+		assertSame("Changed z-order should be respected", bottom, looks.get(0));
+	}
+
+	public void testMovedLookIsFoundAtItsNewPosition() {
+		Look look = createLook("cat", 0f, 0f, 50f, 50f);
+		assertEquals("Look should be found", 1, spatialIndex.getLooksAt(10f, 10f).size());
+
+		look.setPosition(-300f, 420f);
+
+		assertTrue("Look should not be found at its old position", spatialIndex.getLooksAt(10f, 10f).isEmpty());
+		assertEquals("Look should be found at its new position", 1, spatialIndex.getLooksAt(-290f, 430f).size());
+	}
+
+	public void testLookSpanningSeveralCellsIsReturnedOnce() {
+		createLook("wide", -150f, -10f, 300f, 20f);
+
+		List<Look> looks = new ArrayList<Look>();
+		spatialIndex.getLooksIntersecting(-140f, -5f, 140f, 5f, looks);
+		assertEquals("Look spanning several cells should be returned once", 1, looks.size());
+	}
+
+	public void testRotationAndScaleChangeBounds() {
+		Look look = createLook("stick", 0f, 0f, 200f, 10f);
+		assertTrue("Point above the look should not hit", spatialIndex.getLooksAt(100f, 80f).isEmpty());
+
+		look.setRotation(90f);
+		assertEquals("Rotated look should cover the point", 1, spatialIndex.getLooksAt(100f, 80f).size());
+
+		look.setRotation(0f);
+		look.setScale(3f);
+		assertEquals("Scaled look should cover the point", 1, spatialIndex.getLooksAt(-150f, 0f).size());
+	}
+
+	public void testSingleAxisChangesUpdateBounds() {
+		Look look = createLook("stick", 0f, 0f, 200f, 10f);
+
+		look.setScaleX(3f);
+		assertEquals("Look scaled horizontally should cover the point", 1,
+				spatialIndex.getLooksAt(-150f, 5f).size());
+
+		look.setScaleY(10f);
+		assertEquals("Look scaled vertically should cover the point", 1, spatialIndex.getLooksAt(100f, 40f).size());
+
+		look.setScale(1f);
+		look.scale(1f);
+		assertEquals("Relatively scaled look should cover the point", 1, spatialIndex.getLooksAt(-50f, 5f).size());
+
+		look.setOriginX(200f);
+		assertEquals("Look with moved origin should cover the point", 1, spatialIndex.getLooksAt(-150f, 5f).size());
+
+		look.setScale(1f);
+		look.setOriginX(0f);
+		look.size(100f);
+		assertEquals("Enlarged look should cover the point", 1, spatialIndex.getLooksAt(250f, 5f).size());
+	}
+
+	public void testOversizedLookIsFound() {
+		Look look = createLook("background", 0f, 0f, 100f, 100f);
+		look.setScale(100f);
+
+		assertEquals("Oversized look should be found", 1, spatialIndex.getLooksAt(-4000f, 4000f).size());
+		assertTrue("Point outside the oversized look should not hit",
+				spatialIndex.getLooksAt(-6000f, 4000f).isEmpty());
+	}
+
+	public void testRemovedLookIsNotFound() {
+		Look look = createLook("cat", 0f, 0f, 50f, 50f);
+		spatialIndex.remove(look);
+
+		assertTrue("Removed look should not be found", spatialIndex.getLooksAt(10f, 10f).isEmpty());
+		look.setPosition(5f, 5f);
+		assertEquals("Removed look should not be tracked", 0, spatialIndex.size());
+	}
+
+	private Look createLook(String name, float x, float y, float width, float height) {
+		Look look = new Sprite(name).look;
+		look.setBounds(x, y, width, height);
+		look.setOrigin(width / 2f, height / 2f);
+		group.addActor(look);
+		spatialIndex.add(look);
+		return look;
+	}
+}
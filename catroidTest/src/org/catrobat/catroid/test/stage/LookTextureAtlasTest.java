@@ -0,0 +1,49 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.stage.LookTextureAtlas;
+
+public class LookTextureAtlasTest extends AndroidTestCase {
+
+	public void testPageSize() {
+		assertEquals("Page size should be capped", LookTextureAtlas.MAXIMUM_PAGE_SIZE,
+				LookTextureAtlas.getPageSize(8192));
+		assertEquals("Page size should respect the maximum texture size", 1024, LookTextureAtlas.getPageSize(1024));
+		assertEquals("Page size should be a power of two", 1024, LookTextureAtlas.getPageSize(2000));
+	}
+
+	public void testOversizedLooksDoNotFit() {
+		int pageSize = 1024;
+		int largestFittingSize = pageSize - 2 * LookTextureAtlas.PADDING;
+
+		assertTrue("Look should fit on the page",
+				LookTextureAtlas.fitsOnPage(largestFittingSize, largestFittingSize, pageSize));
+		assertFalse("Too wide look should not fit on the page",
+				LookTextureAtlas.fitsOnPage(largestFittingSize + 1, 10, pageSize));
+		assertFalse("Too high look should not fit on the page",
+				LookTextureAtlas.fitsOnPage(10, largestFittingSize + 1, pageSize));
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.InstrumentationTestCase;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.stage.LookHitMask;
+import org.catrobat.catroid.stage.LookTextureAtlas;
+import org.catrobat.catroid.stage.LookTextureCache;
+import org.catrobat.catroid.test.R;
+import org.catrobat.catroid.test.utils.TestUtils;
+import org.catrobat.catroid.utils.UtilFile;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LookTextureCacheTest extends InstrumentationTestCase {
+
+	private static final String PROJECT_NAME = "lookTextureCacheTestProject";
+
+	private LookTextureCache lookTextureCache;
+	private String firstImagePath;
+	private String secondImagePath;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		GdxNativesLoader.load();
+		deleteProjectDirectory();
+
+		Project project = new Project(getInstrumentation().getTargetContext(), PROJECT_NAME);
+		StorageHandler.getInstance().saveProject(project);
+		ProjectManager.getInstance().setProject(project);
+
+		firstImagePath = TestUtils.saveFileToProject(PROJECT_NAME, "icon.png", R.raw.icon,
+				getInstrumentation().getContext(), TestUtils.TYPE_IMAGE_FILE).getAbsolutePath();
+		secondImagePath = TestUtils.saveFileToProject(PROJECT_NAME, "red.png", R.raw.red_quad,
+				getInstrumentation().getContext(), TestUtils.TYPE_IMAGE_FILE).getAbsolutePath();
+
+		lookTextureCache = LookTextureCache.getInstance();
+		lookTextureCache.clear();
+		lookTextureCache.resetStatistics();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		lookTextureCache.clear();
+		lookTextureCache.setSprites(null);
+		lookTextureCache.setMemoryBudget(LookTextureCache.DEFAULT_MEMORY_BUDGET);
+		lookTextureCache.resetStatistics();
+		deleteProjectDirectory();
+		super.tearDown();
+	}
+
+	public void testHitsAndMisses() {
+		Pixmap pixmap = lookTextureCache.getPixmap(firstImagePath);
+		assertSame("Cached pixmap should be reused", pixmap, lookTextureCache.getPixmap(firstImagePath));
+
+		assertEquals("Wrong miss count", 1, lookTextureCache.getMissCount());
+		assertEquals("Wrong hit count", 1, lookTextureCache.getHitCount());
+		assertEquals("Resident memory should match the pixmap", (long) pixmap.getPixels().capacity(),
+				lookTextureCache.getResidentBytes());
+	}
+
+	public void testLeastRecentlyUsedImageIsEvicted() {
+		lookTextureCache.getPixmap(firstImagePath);
+		lookTextureCache.setMemoryBudget(lookTextureCache.getResidentBytes());
+
+		lookTextureCache.getPixmap(secondImagePath);
+
+		assertFalse("Least recently used image should have been evicted", lookTextureCache.contains(firstImagePath));
+		assertTrue("Requested image should stay in the cache", lookTextureCache.contains(secondImagePath));
+		assertEquals("Wrong eviction count", 1, lookTextureCache.getEvictionCount());
+
+		Pixmap reloaded = lookTextureCache.getPixmap(firstImagePath);
+		assertNotNull("Evicted image should be reloaded on demand", reloaded);
+		assertEquals("Reloading should count as a miss", 3, lookTextureCache.getMissCount());
+	}
+
+	public void testShownImageIsNotEvicted() {
+		Sprite sprite = new Sprite("cat");
+		LookData lookData = new LookData();
+		lookData.setLookName("icon");
+		lookData.setLookFilename(new File(firstImagePath).getName());
+		sprite.look.setLookData(lookData);
+		List<Sprite> sprites = new ArrayList<Sprite>();
+		sprites.add(sprite);
+		lookTextureCache.setSprites(sprites);
+
+		lookTextureCache.getPixmap(firstImagePath);
+		lookTextureCache.setMemoryBudget(lookTextureCache.getResidentBytes());
+		lookTextureCache.getPixmap(secondImagePath);
+
+		assertTrue("Shown image must not be evicted", lookTextureCache.contains(firstImagePath));
+		assertEquals("Nothing should have been evicted", 0, lookTextureCache.getEvictionCount());
+	}
+
+	public void testHitMaskSurvivesReleasedPixmap() {
+		Pixmap pixmap = lookTextureCache.getPixmap(firstImagePath);
+		int width = pixmap.getWidth();
+		lookTextureCache.releasePixmap(firstImagePath);
+
+		assertEquals("Released pixmap should not count as resident memory", 0L, lookTextureCache.getResidentBytes());
+		LookHitMask hitMask = lookTextureCache.getHitMask(firstImagePath);
+		assertNotNull("Hit mask should be kept", hitMask);
+		assertEquals("Hit mask has wrong width", width, hitMask.getWidth());
+		assertEquals("Hit mask should not decode the image again", 1, lookTextureCache.getMissCount());
+	}
+
+	public void testPutPixmapRespectsBudget() {
+		lookTextureCache.setMemoryBudget(1);
+		Pixmap pixmap = new Pixmap(4, 4, Pixmap.Format.RGBA8888);
+
+		assertFalse("Pixmap exceeding the budget should be rejected", lookTextureCache.putPixmap(firstImagePath,
+				pixmap));
+		assertFalse("Rejected pixmap should not be cached", lookTextureCache.contains(firstImagePath));
+	}
+
+	public void testReservedBytesEvictImagesWithinBudget() {
+		lookTextureCache.getPixmap(firstImagePath);
+		long imageBytes = lookTextureCache.getResidentBytes();
+		long pageBytes = LookTextureAtlas.getPageBytes(64);
+		lookTextureCache.setMemoryBudget(pageBytes + imageBytes);
+
+		assertTrue("Page should fit into the budget", lookTextureCache.reserveBytes(pageBytes));
+		lookTextureCache.getPixmap(secondImagePath);
+
+		assertFalse("Image should have been evicted for the reserved page", lookTextureCache.contains(firstImagePath));
+		assertTrue("Resident memory should stay within the budget",
+				lookTextureCache.getResidentBytes() <= lookTextureCache.getMemoryBudget());
+		assertEquals("Wrong reserved memory", pageBytes, lookTextureCache.getReservedBytes());
+
+		lookTextureCache.clear();
+		assertEquals("Clearing the cache should keep the reserved memory", pageBytes,
+				lookTextureCache.getResidentBytes());
+		lookTextureCache.releaseReservedBytes(pageBytes);
+		assertEquals("Released memory should not be resident", 0L, lookTextureCache.getResidentBytes());
+	}
+
+	public void testReservationExceedingBudgetIsRejected() {
+		Sprite sprite = new Sprite("cat");
+		LookData lookData = new LookData();
+		lookData.setLookName("icon");
+		lookData.setLookFilename(new File(firstImagePath).getName());
+		sprite.look.setLookData(lookData);
+		List<Sprite> sprites = new ArrayList<Sprite>();
+		sprites.add(sprite);
+		lookTextureCache.setSprites(sprites);
+
+		lookTextureCache.getPixmap(firstImagePath);
+		long imageBytes = lookTextureCache.getResidentBytes();
+		lookTextureCache.setMemoryBudget(imageBytes);
+
+		assertFalse("Reservation should not fit next to the shown image", lookTextureCache.reserveBytes(1));
+		assertTrue("Shown image must not be evicted", lookTextureCache.contains(firstImagePath));
+		assertEquals("Rejected reservation should not count", imageBytes, lookTextureCache.getResidentBytes());
+		assertEquals("Nothing should be reserved", 0L, lookTextureCache.getReservedBytes());
+	}
+
+	private void deleteProjectDirectory() {
+		File projectDirectory = new File(Constants.DEFAULT_ROOT + "/" + PROJECT_NAME);
+		if (projectDirectory.exists()) {
+			UtilFile.deleteDirectory(projectDirectory);
+		}
+	}
+}
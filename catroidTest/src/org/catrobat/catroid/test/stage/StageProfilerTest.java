@@ -0,0 +1,152 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.WhenScript;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.content.bricks.SetYBrick;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.stage.StageProfiler;
+import org.catrobat.catroid.uitest.util.UiTestUtils;
+import org.json.JSONObject;
+
+import java.io.StringWriter;
+import java.util.List;
+
+public class StageProfilerTest extends AndroidTestCase {
+
+	private Sprite sprite;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		sprite = new Sprite("cat");
+		Script script = new StartScript(sprite);
+		script.addBrick(new SetXBrick(sprite, new Formula(10)));
+		script.addBrick(new SetYBrick(sprite, new Formula(20)));
+		sprite.addScript(script);
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(sprite);
+		ProjectManager.getInstance().setProject(project);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		StageProfiler.setEnabled(false);
+		StageProfiler.getInstance().reset();
+		super.tearDown();
+	}
+
+	public void testNothingIsRecordedWhenDisabled() {
+		StageProfiler.setEnabled(false);
+		StageProfiler.getInstance().reset();
+		runScripts();
+
+		assertTrue("Disabled profiler recorded sprites", StageProfiler.getInstance().getSpriteEntries().isEmpty());
+		assertTrue("Disabled profiler recorded scripts", StageProfiler.getInstance().getScriptEntries().isEmpty());
+	}
+
+	public void testActionsAndFormulasAreAttributed() {
+		StageProfiler.setEnabled(true);
+		runScripts();
+
+		List<StageProfiler.Entry> spriteEntries = StageProfiler.getInstance().getSpriteEntries();
+		assertEquals("Wrong number of profiled sprites", 1, spriteEntries.size());
+		StageProfiler.Entry spriteEntry = spriteEntries.get(0);
+		assertEquals("Wrong sprite name", "cat", spriteEntry.getName());
+		assertTrue("No action steps recorded", spriteEntry.getActionSteps() > 0);
+		assertEquals("Wrong number of formula evaluations", 2, spriteEntry.getFormulaEvaluations());
+
+		List<StageProfiler.Entry> scriptEntries = StageProfiler.getInstance().getScriptEntries();
+		assertEquals("Wrong number of profiled scripts", 1, scriptEntries.size());
+		StageProfiler.Entry scriptEntry = scriptEntries.get(0);
+		assertEquals("Wrong script name", "cat/0 StartScript", scriptEntry.getName());
+		assertEquals("Formula evaluations not attributed to the script", 2, scriptEntry.getFormulaEvaluations());
+		assertTrue("Act time should include formula time",
+				scriptEntry.getActTimeNanos() >= scriptEntry.getFormulaTimeNanos());
+	}
+
+	public void testScriptStartedBeforeEnablingIsAttributed() {
+		sprite.createStartScriptActionSequence();
+		StageProfiler.setEnabled(true);
+		sprite.look.act(1f);
+
+		List<StageProfiler.Entry> scriptEntries = StageProfiler.getInstance().getScriptEntries();
+		assertEquals("Wrong number of profiled scripts", 1, scriptEntries.size());
+		assertEquals("Wrong script name", "cat/0 StartScript", scriptEntries.get(0).getName());
+		assertTrue("No action steps attributed to the script", scriptEntries.get(0).getActionSteps() > 0);
+	}
+
+	public void testWhenScriptsAreAttributedSeparately() {
+		for (int index = 0; index < 2; index++) {
+			Script whenScript = new WhenScript(sprite);
+			whenScript.addBrick(new SetXBrick(sprite, new Formula(index)));
+			sprite.addScript(whenScript);
+		}
+		StageProfiler.setEnabled(true);
+		sprite.createWhenScriptActionSequence("Tapped");
+		sprite.look.act(1f);
+
+		List<StageProfiler.Entry> scriptEntries = StageProfiler.getInstance().getScriptEntries();
+		assertEquals("Wrong number of profiled scripts", 2, scriptEntries.size());
+		assertEquals("Wrong first when script", "cat/1 WhenScript Tapped", scriptEntries.get(0).getName());
+		assertEquals("Wrong second when script", "cat/2 WhenScript Tapped", scriptEntries.get(1).getName());
+		assertEquals("Formula evaluation not attributed to the first when script", 1,
+				scriptEntries.get(0).getFormulaEvaluations());
+		assertEquals("Formula evaluation not attributed to the second when script", 1,
+				scriptEntries.get(1).getFormulaEvaluations());
+	}
+
+	public void testExport() throws Exception {
+		StageProfiler.setEnabled(true);
+		runScripts();
+
+		StringWriter csv = new StringWriter();
+		StageProfiler.getInstance().writeCsv(csv);
+		String[] lines = csv.toString().split("\n");
+		assertEquals("Wrong number of CSV lines", 3, lines.length);
+		assertTrue("Wrong CSV header", lines[0].startsWith("type,name,"));
+		assertTrue("Wrong sprite line", lines[1].startsWith("sprite,cat,"));
+		assertTrue("Wrong script line", lines[2].startsWith("script,cat/0 StartScript,"));
+
+		JSONObject json = StageProfiler.getInstance().toJson();
+		assertEquals("Wrong number of sprites in JSON", 1, json.getJSONArray("sprites").length());
+		assertEquals("Wrong script in JSON", "cat/0 StartScript",
+				json.getJSONArray("scripts").getJSONObject(0).getString("name"));
+	}
+
+	private void runScripts() {
+		sprite.createStartScriptActionSequence();
+		for (int i = 0; i < 10 && !sprite.look.getAllActionsAreFinished(); i++) {
+			sprite.look.act(1f);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.BroadcastEvent;
+import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+import org.catrobat.catroid.stage.StageRuntime;
+
+public class StageRuntimeTest extends AndroidTestCase {
+
+	private static final String MESSAGE_ONE = "messageOne";
+	private static final String MESSAGE_TWO = "messageTwo";
+
+	private Sprite sprite;
+	private StageRuntime stageRuntime;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		sprite = new Sprite("cat");
+		stageRuntime = new StageRuntime();
+		sprite.look.setStageRuntime(stageRuntime);
+	}
+
+	public void testRuntimesAreIndependent() {
+		SequenceAction receiverSequence = ExtendedActions.sequence();
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, receiverSequence, sprite.look);
+
+		new StageRuntime().dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		assertEquals("Broadcast of another runtime reached the receiver", 0, sprite.look.getActions().size);
+
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		assertEquals("Receiver was not started", 1, sprite.look.getActions().size);
+		SequenceAction startedAction = (SequenceAction) sprite.look.getActions().get(0);
+		assertSame("Wrong action started", receiverSequence, startedAction.getActions().get(0));
+	}
+
+	public void testLooksWithoutStageHaveTheirOwnRuntime() {
+		Sprite firstSprite = new Sprite("dog");
+		Sprite secondSprite = new Sprite("mouse");
+
+		StageRuntime firstRuntime = firstSprite.look.getStageRuntime();
+		assertNotNull("Look without stage has no runtime", firstRuntime);
+		assertSame("Look should keep its runtime", firstRuntime, firstSprite.look.getStageRuntime());
+		assertNotSame("Looks without stage should not share a runtime", firstRuntime,
+				secondSprite.look.getStageRuntime());
+	}
+
+	public void testBroadcastWaitsOfDifferentMessagesAreTrackedSeparately() {
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, ExtendedActions.sequence(ExtendedActions.delay(10f)),
+				sprite.look);
+		stageRuntime.addBroadcastReceiver(MESSAGE_TWO, ExtendedActions.sequence(), sprite.look);
+
+		BroadcastEvent longWait = createEvent(MESSAGE_ONE, BroadcastType.broadcastWait);
+		BroadcastEvent shortWait = createEvent(MESSAGE_TWO, BroadcastType.broadcastWait);
+		stageRuntime.dispatchBroadcast(longWait);
+		stageRuntime.dispatchBroadcast(shortWait);
+
+		assertTrue("First broadcast wait is not tracked", stageRuntime.isWaitingForReceivers(longWait));
+		assertTrue("Second broadcast wait is not tracked", stageRuntime.isWaitingForReceivers(shortWait));
+		assertFalse("Second broadcast wait resumed the first waiter", longWait.getRun());
+
+		for (int tick = 0; tick < 3; tick++) {
+			sprite.look.act(1f);
+		}
+
+		assertTrue("Waiter of the finished receiver was not resumed", shortWait.getRun());
+		assertFalse("Finished broadcast wait is still tracked", stageRuntime.isWaitingForReceivers(shortWait));
+		assertFalse("Waiter of the running receiver was resumed", longWait.getRun());
+		assertTrue("Running broadcast wait is not tracked", stageRuntime.isWaitingForReceivers(longWait));
+	}
+
+	public void testBroadcastWaitSequenceIsReused() {
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, ExtendedActions.sequence(), sprite.look);
+
+		for (int i = 0; i < 5; i++) {
+			BroadcastEvent event = createEvent(MESSAGE_ONE, BroadcastType.broadcastWait);
+			stageRuntime.dispatchBroadcast(event);
+			sprite.look.act(1f);
+			sprite.look.act(1f);
+			assertTrue("Waiter was not resumed", event.getRun());
+		}
+
+		assertEquals("Broadcast waits should share one wait sequence", 1, sprite.look.getActions().size);
+	}
+
+	public void testBroadcastAfterFinishedWaitDoesNotNotifyTheOldEvent() {
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, ExtendedActions.sequence(), sprite.look);
+		BroadcastEvent event = createEvent(MESSAGE_ONE, BroadcastType.broadcastWait);
+		stageRuntime.dispatchBroadcast(event);
+		sprite.look.act(1f);
+		sprite.look.act(1f);
+		assertTrue("Waiter was not resumed", event.getRun());
+
+		event.setRun(false);
+		event.raiseNumberOfReceivers();
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		sprite.look.act(1f);
+		sprite.look.act(1f);
+
+		assertFalse("Restarted wait sequence notified an event which is not waiting", event.getRun());
+	}
+
+	public void testBroadcastWaitAfterBroadcastRunsTheReceiverAgain() {
+		RestartCountingAction receiverAction = new RestartCountingAction();
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, ExtendedActions.sequence(receiverAction), sprite.look);
+
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		for (int tick = 0; tick < 5; tick++) {
+			sprite.look.act(1f);
+		}
+		assertEquals("Receiver did not run for the broadcast", 1, receiverAction.actCount);
+
+		BroadcastEvent event = createEvent(MESSAGE_ONE, BroadcastType.broadcastWait);
+		stageRuntime.dispatchBroadcast(event);
+		int tick = 0;
+		while (!event.getRun() && tick++ < 10) {
+			sprite.look.act(1f);
+		}
+
+		assertTrue("Waiter was not resumed", event.getRun());
+		assertEquals("Receiver did not run again before the waiter resumed", 2, receiverAction.actCount);
+		assertEquals("Receiver sequence is held by more than one action", 1, sprite.look.getActions().size);
+	}
+
+	public void testBroadcastWaitDuringBroadcastKeepsOneReceiverAction() {
+		RestartCountingAction receiverAction = new RestartCountingAction();
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE,
+				ExtendedActions.sequence(ExtendedActions.delay(2f), receiverAction), sprite.look);
+
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		sprite.look.act(1f);
+		BroadcastEvent event = createEvent(MESSAGE_ONE, BroadcastType.broadcastWait);
+		stageRuntime.dispatchBroadcast(event);
+
+		assertEquals("Running receiver should not be added twice", 1, sprite.look.getActions().size);
+		int tick = 0;
+		while (!event.getRun() && tick++ < 10) {
+			sprite.look.act(1f);
+		}
+		assertTrue("Waiter was not resumed", event.getRun());
+		assertEquals("Restarted receiver should run once", 1, receiverAction.actCount);
+	}
+
+	public void testBroadcastsOfOneTickAreCoalesced() {
+		RestartCountingAction receiverAction = new RestartCountingAction();
+		stageRuntime.addBroadcastReceiver(MESSAGE_ONE, ExtendedActions.sequence(receiverAction), sprite.look);
+
+		stageRuntime.beginTick();
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		sprite.look.act(1f);
+		assertEquals("Receiver was restarted when it was started", 0, receiverAction.restartCount);
+
+		stageRuntime.beginTick();
+		for (int i = 0; i < 3; i++) {
+			stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		}
+		sprite.look.act(1f);
+		assertEquals("Broadcasts of one tick were not coalesced", 1, receiverAction.restartCount);
+
+		stageRuntime.beginTick();
+		stageRuntime.dispatchBroadcast(createEvent(MESSAGE_ONE, BroadcastType.broadcast));
+		sprite.look.act(1f);
+		assertEquals("Broadcast of the next tick was not delivered", 2, receiverAction.restartCount);
+	}
+
+	private BroadcastEvent createEvent(String message, BroadcastType type) {
+		BroadcastEvent event = new BroadcastEvent();
+		event.setSenderSprite(sprite);
+		event.setBroadcastMessage(message);
+		event.setType(type);
+		event.setRun(type != BroadcastType.broadcastWait);
+		return event;
+	}
+
+	private static class RestartCountingAction extends Action {
+		private int restartCount = 0;
+		private int actCount = 0;
+
+		@Override
+		public boolean act(float delta) {
+			actCount++;
+			return true;
+		}
+
+		@Override
+		public void restart() {
+			restartCount++;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ *  Catroid: An on-device visual programming system for Android devices
+ *  Copyright (C) 2010-2013 The Catrobat Team
+ *  (<http://developer.catrobat.org/credits>)
+ *  
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *  
+ *  An additional term exception under section 7 of the GNU Affero
+ *  General Public License, version 3, is available at
+ *  http://developer.catrobat.org/license_additional_term
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.stage.StageTelemetry;
+
+public class StageTelemetryTest extends AndroidTestCase {
+
+	public void testFrameTimePercentiles() {
+		StageTelemetry telemetry = new StageTelemetry(100);
+		for (int frame = 1; frame <= 100; frame++) {
+			telemetry.recordFrame(frame, 0, 0, 0);
+		}
+
+		assertEquals("Wrong median", 50, telemetry.getFrameTimePercentile(50f));
+		assertEquals("Wrong 95th percentile", 95, telemetry.getFrameTimePercentile(95f));
+		assertEquals("Wrong 99th percentile", 99, telemetry.getFrameTimePercentile(99f));
+		assertEquals("Wrong maximum", 100, telemetry.getFrameTimePercentile(100f));
+	}
+
+	public void testRingBufferKeepsRecentFrames() {
+		StageTelemetry telemetry = new StageTelemetry(4);
+		telemetry.recordFrame(1000, 10, 20, 1);
+		for (int frame = 0; frame < 4; frame++) {
+			telemetry.recordFrame(5, 2, 4, 3);
+		}
+
+		assertEquals("Sample count should be capped by the capacity", 4, telemetry.getSampleCount());
+		assertEquals("Overwritten frame still counts", 5, telemetry.getFrameTimePercentile(100f));
+		assertEquals("Wrong average act time", 2, telemetry.getAverageActTimeNanos());
+		assertEquals("Wrong average draw time", 4, telemetry.getAverageDrawTimeNanos());
+		assertEquals("Wrong number of active actions", 3, telemetry.getActiveActionCount());
+	}
+
+	public void testCounterRates() {
+		StageTelemetry telemetry = new StageTelemetry(10);
+		long second = 1000000000L;
+
+		telemetry.recordCounters(0, 100, 1);
+		telemetry.recordCounters(second / 2, 5000, 2);
+		assertEquals("Rates should not be updated before a second has passed", 0f,
+				telemetry.getAllocationsPerSecond());
+
+		telemetry.recordCounters(2 * second, 700, 5);
+		assertEquals("Wrong allocation rate", 300f, telemetry.getAllocationsPerSecond());
+		assertEquals("Wrong garbage collection rate", 2f, telemetry.getGcsPerSecond());
+	}
+
+	public void testEmptyTelemetry() {
+		StageTelemetry telemetry = new StageTelemetry(10);
+		assertEquals("Empty telemetry should report 0", 0, telemetry.getFrameTimePercentile(50f));
+		assertEquals("Empty telemetry should report 0", 0, telemetry.getAverageActTimeNanos());
+	}
+}
@@ -41,6 +41,10 @@ import org.catrobat.catroid.content.bricks.IfLogicBeginBrick;
 import org.catrobat.catroid.content.bricks.IfLogicElseBrick;
 import org.catrobat.catroid.content.bricks.IfLogicEndBrick;
 import org.catrobat.catroid.content.bricks.ShowBrick;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.Operators;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.utils.NotificationData;
 import org.catrobat.catroid.utils.StatusBarNotificationManager;
@@ -292,4 +296,18 @@ public final class TestUtils {
 
 		notificationMap.clear();
 	}
+
+	public static FormulaElement createNumberElement(String value) {
+		return new FormulaElement(ElementType.NUMBER, value, null);
+	}
+
+	public static FormulaElement createOperatorElement(Operators operator, FormulaElement leftChild,
+			FormulaElement rightChild) {
+		return new FormulaElement(ElementType.OPERATOR, operator.name(), null, leftChild, rightChild);
+	}
+
+	public static FormulaElement createFunctionElement(Functions function, FormulaElement leftChild,
+			FormulaElement rightChild) {
+		return new FormulaElement(ElementType.FUNCTION, function.name(), null, leftChild, rightChild);
+	}
 }
@@ -37,8 +37,10 @@ import org.catrobat.catroid.content.bricks.SetGhostEffectBrick;
 import org.catrobat.catroid.content.bricks.SetSizeToBrick;
 import org.catrobat.catroid.content.bricks.TurnLeftBrick;
 import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.stage.LookTextureCache;
 import org.catrobat.catroid.stage.StageActivity;
 import org.catrobat.catroid.ui.MainMenuActivity;
+import org.catrobat.catroid.ui.ProjectActivity;
 import org.catrobat.catroid.uitest.annotation.Device;
 import org.catrobat.catroid.uitest.util.BaseActivityInstrumentationTestCase;
 import org.catrobat.catroid.uitest.util.UiTestUtils;
@@ -189,6 +191,23 @@ public class StageTestComplex extends BaseActivityInstrumentationTestCase<MainMe
 		solo.sleep(2000);
 	}
 
+	public void testTextureAtlasIsDisposedWithTheStage() {
+		solo.waitForActivity(StageActivity.class.getSimpleName());
+		solo.sleep(1400);
+
+		Sprite yellowSprite = ProjectManager.getInstance().getCurrentProject().getSpriteList().get(1);
+		LookData yellowLookData = yellowSprite.getLookDataList().get(0);
+		assertTrue("Look was not packed into the texture atlas", yellowLookData.isInTextureAtlas());
+
+		solo.goBack();
+		solo.goBack();
+		solo.waitForActivity(ProjectActivity.class.getSimpleName());
+		solo.sleep(1000);
+
+		assertFalse("Atlas region was not released", yellowLookData.isInTextureAtlas());
+		assertEquals("Stage was not disposed completely", 0L, LookTextureCache.getInstance().getResidentBytes());
+	}
+
 	private void createProject() {
 		ScreenValues.SCREEN_HEIGHT = SCREEN_HEIGHT;
 		ScreenValues.SCREEN_WIDTH = SCREEN_WIDTH;